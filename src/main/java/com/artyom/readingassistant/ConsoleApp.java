@@ -1,7 +1,10 @@
 package com.artyom.readingassistant;
 
 import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.model.PipelineStage;
+import com.artyom.readingassistant.replay.CorpusReplayer;
 import com.artyom.readingassistant.service.FormatForPdfService;
+import com.artyom.readingassistant.service.FormatterService;
 import com.artyom.readingassistant.service.PdfExporter;
 import com.artyom.readingassistant.service.ReadingPipeline;
 import org.slf4j.Logger;
@@ -10,8 +13,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ApplicationContext;
 
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 @SpringBootApplication(scanBasePackages = "com.artyom.readingassistant")
 public class ConsoleApp {
@@ -20,11 +27,30 @@ public class ConsoleApp {
 
     public static void main(String[] args) throws Exception {
         if (args.length == 0) {
-            System.err.println("Usage: java -jar reading-assistant.jar <article-url>");
+            System.err.println("Usage: java -jar reading-assistant.jar <article-url> [--stages=summary,keyIdeas,actionItems,sections] [--telegram]");
+            System.err.println("       java -jar reading-assistant.jar --replay <dir-with-html-or-warc> [out.ndjson] [--isolated]");
             System.exit(1);
         }
 
+        if (args[0].equals("--replay")) {
+            replay(args);
+            return;
+        }
+
         String url = args[0].trim();
+        Set<PipelineStage> stages = PipelineStage.DEFAULT;
+        boolean telegram = false;
+        for (String arg : args) {
+            if (arg.equals("--telegram")) telegram = true;
+            if (!arg.startsWith("--stages=")) continue;
+            try {
+                stages = PipelineStage.parse(arg.substring("--stages=".length()));
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                System.exit(1);
+            }
+        }
+
         ApplicationContext ctx = SpringApplication.run(ConsoleApp.class, args);
 
         ReadingPipeline pipeline = ctx.getBean(ReadingPipeline.class);
@@ -32,9 +58,13 @@ public class ConsoleApp {
         PdfExporter pdfExporter = ctx.getBean(PdfExporter.class);
 
         log.info("Analyzing URL: {}", url);
-        ArticleResult result = pipeline.analyze(url);
+        ArticleResult result = pipeline.analyze(url, stages);
 
-        String textForPdf = formatter.formatPlainText(result);
+        if (telegram) {
+            printTelegramMessages(ctx, result);
+            SpringApplication.exit(ctx, () -> 0);
+            return;
+        }
 
         // ensure output directory
         Path outDir = Path.of("output");
@@ -45,10 +75,61 @@ public class ConsoleApp {
                 : result.getTitle());
         Path outFile = outDir.resolve(safeName + ".pdf");
 
-        pdfExporter.exportTextToPdf(textForPdf, outFile.toAbsolutePath().toString());
+        // rendered straight into the PDF, no intermediate String with the whole text
+        try (Writer pdf = pdfExporter.openTextWriter(outFile.toAbsolutePath().toString())) {
+            formatter.writePlainText(result, pdf);
+        }
 
         log.info("Saved PDF to {}", outFile.toAbsolutePath());
         System.out.println("Saved PDF to " + outFile.toAbsolutePath());
         SpringApplication.exit(ctx, () -> 0);
     }
+
+    // Messages as a bot would send them, each printed as soon as it is cut
+    private static void printTelegramMessages(ApplicationContext ctx, ArticleResult result) {
+        FormatterService telegramFormatter = ctx.getBean(FormatterService.class);
+        int[] count = {0};
+        telegramFormatter.writeTelegramMessages(result, message -> {
+            if (count[0]++ > 0) System.out.println("----------");
+            System.out.println(message);
+        });
+        log.info("Printed {} Telegram messages", count[0]);
+    }
+
+    // Offline mode: reprocess saved pages without touching the network.
+    // --isolated keeps the index, learned extraction rules and job journal of this installation untouched
+    private static void replay(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        boolean isolated = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--isolated")) isolated = true;
+            else positional.add(args[i]);
+        }
+        if (positional.isEmpty()) {
+            System.err.println("Usage: java -jar reading-assistant.jar --replay <dir-with-html-or-warc> [out.ndjson] [--isolated]");
+            System.exit(1);
+        }
+
+        Path input = Path.of(positional.get(0));
+        Path output = Path.of(positional.size() > 1 ? positional.get(1) : "output/replay.ndjson");
+        if (output.getParent() != null) Files.createDirectories(output.getParent());
+
+        List<String> springArgs = new ArrayList<>();
+        if (isolated) {
+            Path scratch = Files.createTempDirectory("reading-replay-");
+            springArgs.add("--reading.index.dir=" + scratch.resolve("index"));
+            springArgs.add("--reading.extraction.rules-file=" + scratch.resolve("extraction-rules.json"));
+            springArgs.add("--reading.jobs.dir=" + scratch.resolve("jobs"));
+            log.info("Isolated replay, state goes to {}", scratch);
+        }
+
+        ApplicationContext ctx = SpringApplication.run(ConsoleApp.class, springArgs.toArray(new String[0]));
+        CorpusReplayer replayer = ctx.getBean(CorpusReplayer.class);
+
+        CorpusReplayer.Stats stats = replayer.replay(input, output, Runtime.getRuntime().availableProcessors());
+
+        System.out.println("Replayed " + stats.processed + " pages (" + stats.failed + " failed) in "
+                + stats.millis + " ms, results in " + output.toAbsolutePath());
+        SpringApplication.exit(ctx, () -> stats.failed == 0 ? 0 : 2);
+    }
 }
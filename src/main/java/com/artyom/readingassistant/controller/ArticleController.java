@@ -1,15 +1,32 @@
 package com.artyom.readingassistant.controller;
 
+import com.artyom.readingassistant.model.ArticleField;
 import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.model.CompactArticleResult;
+import com.artyom.readingassistant.model.PipelineStage;
+import com.artyom.readingassistant.service.FormatForPdfService;
 import com.artyom.readingassistant.service.ReadingPipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Simple REST controller that exposes the analyze API.
  * Example: GET /api/analyze?url=https://habr.com/...
+ * Optional projection: GET /api/analyze?url=...&fields=title,summary (omit the heavy "text")
+ * Optional stage selection: GET /api/analyze?url=...&stages=summary (skip key ideas and action items;
+ * fields of skipped stages are left out of the response)
+ * Hierarchical summary of long documents: GET /api/analyze?url=...&stages=sections,keyIdeas
+ * (adds "sectionSummaries"; the summary is picked across the section summaries)
+ * Plain-text report (same as the PDF content): GET /api/analyze/text?url=...&stages=...
  */
 @RestController
 @RequestMapping("/api")
@@ -18,15 +35,60 @@ public class ArticleController {
     private static final Logger log = LoggerFactory.getLogger(ArticleController.class);
 
     private final ReadingPipeline pipeline;
+    private final FormatForPdfService plainTextFormatter;
 
-    public ArticleController(ReadingPipeline pipeline) {
+    public ArticleController(ReadingPipeline pipeline, FormatForPdfService plainTextFormatter) {
         this.pipeline = pipeline;
+        this.plainTextFormatter = plainTextFormatter;
     }
 
     @GetMapping("/analyze")
-    public ResponseEntity<ArticleResult> analyze(@RequestParam("url") String url) {
+    public ResponseEntity<CompactArticleResult> analyze(@RequestParam("url") String url,
+                                                        @RequestParam(value = "fields", required = false) String fields,
+                                                        @RequestParam(value = "stages", required = false) String stages) {
         log.info("Received analyze request for URL: {}", url);
-        ArticleResult result = pipeline.analyze(url);
-        return ResponseEntity.ok(result);
+
+        Set<ArticleField> selected;
+        Set<PipelineStage> selectedStages;
+        try {
+            selected = EnumSet.copyOf(ArticleField.parse(fields));
+            selectedStages = PipelineStage.parse(stages);
+        } catch (IllegalArgumentException e) {
+            log.info("Rejected analyze request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (!selectedStages.contains(PipelineStage.SUMMARY) && !selectedStages.contains(PipelineStage.SECTIONS)) {
+            selected.remove(ArticleField.SUMMARY);
+        }
+        if (!selectedStages.contains(PipelineStage.KEY_IDEAS)) selected.remove(ArticleField.KEY_IDEAS);
+        if (!selectedStages.contains(PipelineStage.ACTION_ITEMS)) selected.remove(ArticleField.ACTION_ITEMS);
+        if (!selectedStages.contains(PipelineStage.SECTIONS)) selected.remove(ArticleField.SECTION_SUMMARIES);
+
+        ArticleResult result = pipeline.analyze(url, selectedStages);
+        return ResponseEntity.ok(CompactArticleResult.view(result).withFields(selected));
+    }
+
+    @GetMapping(value = "/analyze/text", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<StreamingResponseBody> analyzeAsText(@RequestParam("url") String url,
+                                                               @RequestParam(value = "stages", required = false) String stages) {
+        log.info("Received plain-text analyze request for URL: {}", url);
+
+        Set<PipelineStage> selectedStages;
+        try {
+            selectedStages = PipelineStage.parse(stages);
+        } catch (IllegalArgumentException e) {
+            log.info("Rejected analyze request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        ArticleResult result = pipeline.analyze(url, selectedStages);
+        // rendered straight into the response, no intermediate String with the whole report
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            plainTextFormatter.writePlainText(result, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok(body);
     }
 }
@@ -0,0 +1,58 @@
+package com.artyom.readingassistant.controller;
+
+import com.artyom.readingassistant.exception.JobQueueFullException;
+import com.artyom.readingassistant.jobs.JobService;
+import com.artyom.readingassistant.model.JobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Asynchronous batch API.
+ * Example: POST /api/jobs ["https://habr.com/...", "https://..."] -> 202 + job status with id
+ *          GET  /api/jobs/{id} -> progress and per-URL results
+ */
+@RestController
+@RequestMapping("/api")
+public class JobController {
+
+    private static final Logger log = LoggerFactory.getLogger(JobController.class);
+
+    private static final String RETRY_AFTER_SECONDS = "30";
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<JobStatus> submit(@RequestBody List<String> urls) {
+        try {
+            JobStatus status = jobService.submit(urls);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/api/jobs/" + status.getId())
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            log.info("Rejected job: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (JobQueueFullException e) {
+            log.info("Rejected job: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<JobStatus> status(@PathVariable("id") String id) {
+        return jobService.status(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,34 @@
+package com.artyom.readingassistant.controller;
+
+import com.artyom.readingassistant.model.SearchHit;
+import com.artyom.readingassistant.search.ArticleIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Full-text search over previously analyzed articles. Answered from the local index only.
+ * Example: GET /api/search?q=рекомендации&limit=10
+ */
+@RestController
+@RequestMapping("/api")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final ArticleIndex index;
+
+    public SearchController(ArticleIndex index) {
+        this.index = index;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchHit>> search(@RequestParam("q") String q,
+                                                  @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(index.search(q, Math.min(Math.max(limit, 1), MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,11 @@
+package com.artyom.readingassistant.exception;
+
+/**
+ * Thrown when a new batch job does not fit into the bounded job queue.
+ */
+public class JobQueueFullException extends RuntimeException {
+
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+}
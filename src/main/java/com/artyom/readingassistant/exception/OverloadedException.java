@@ -0,0 +1,18 @@
+package com.artyom.readingassistant.exception;
+
+/**
+ * Thrown when a request is shed by admission control; mapped to 503 with Retry-After.
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
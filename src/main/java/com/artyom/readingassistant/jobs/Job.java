@@ -0,0 +1,96 @@
+package com.artyom.readingassistant.jobs;
+
+import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.model.CompactArticleResult;
+import com.artyom.readingassistant.model.JobItemStatus;
+import com.artyom.readingassistant.model.JobState;
+import com.artyom.readingassistant.model.JobStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory state of one batch job. Results are kept in the compact span form and, as in the journal,
+ * without the article text: a finished job reads the same before and after a restart, and
+ * retained jobs do not hold on to every page they fetched.
+ */
+final class Job {
+
+    final String id;
+    final long createdAt;
+    final List<String> urls;
+
+    private final JobState[] states;
+    private final CompactArticleResult[] results;
+    private final String[] errors;
+    private int finished;
+
+    Job(String id, long createdAt, List<String> urls) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.urls = List.copyOf(urls);
+        this.states = new JobState[urls.size()];
+        this.results = new CompactArticleResult[urls.size()];
+        this.errors = new String[urls.size()];
+        Arrays.fill(states, JobState.QUEUED);
+    }
+
+    synchronized void running(int index) {
+        if (states[index] == JobState.QUEUED) states[index] = JobState.RUNNING;
+    }
+
+    synchronized void done(int index, ArticleResult result) {
+        finish(index, JobState.DONE);
+        results[index] = CompactArticleResult.of(JournalEntry.withoutText(result));
+    }
+
+    synchronized void failed(int index, String error) {
+        finish(index, JobState.FAILED);
+        errors[index] = error;
+    }
+
+    synchronized boolean isPending(int index) {
+        return states[index] == JobState.QUEUED || states[index] == JobState.RUNNING;
+    }
+
+    synchronized boolean isFinished() {
+        return finished == states.length;
+    }
+
+    synchronized JobStatus toStatus() {
+        List<JobItemStatus> items = new ArrayList<>(states.length);
+        int completed = 0;
+        int failedCount = 0;
+        boolean started = false;
+        for (int i = 0; i < states.length; i++) {
+            items.add(new JobItemStatus(urls.get(i), states[i], results[i], errors[i]));
+            if (states[i] == JobState.DONE) completed++;
+            if (states[i] == JobState.FAILED) failedCount++;
+            if (states[i] != JobState.QUEUED) started = true;
+        }
+
+        JobState state = finished == states.length ? JobState.DONE
+                : started ? JobState.RUNNING
+                : JobState.QUEUED;
+        return new JobStatus(id, state, createdAt, states.length, completed, failedCount, items);
+    }
+
+    /**
+     * Entries that reproduce the current state; used when the journal is compacted.
+     */
+    synchronized List<JournalEntry> toJournal() {
+        List<JournalEntry> entries = new ArrayList<>();
+        entries.add(JournalEntry.job(id, createdAt, urls));
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == JobState.DONE) entries.add(JournalEntry.done(id, i, results[i].toArticleResult()));
+            if (states[i] == JobState.FAILED) entries.add(JournalEntry.failed(id, i, errors[i]));
+        }
+        return entries;
+    }
+
+    private void finish(int index, JobState state) {
+        if (states[index] != JobState.DONE && states[index] != JobState.FAILED) finished++;
+        states[index] = state;
+    }
+}
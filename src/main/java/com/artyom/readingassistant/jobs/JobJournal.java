@@ -0,0 +1,166 @@
+package com.artyom.readingassistant.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Append-only NDJSON journal of batch jobs.
+ *
+ * Every entry is written as one line and forced to disk before append() returns.
+ * A line that was only partially written when the process died is dropped (and cut off)
+ * on the next replay; all complete lines before it are kept.
+ *
+ * The file is compacted at runtime as well: once it has grown to twice its size after the last
+ * compaction, it is replaced by a snapshot of the live state (see {@link #compactIfGrown}).
+ */
+final class JobJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(JobJournal.class);
+
+    private final Path file;
+    private final ObjectMapper mapper;
+    private FileChannel channel;
+    private long size;          // bytes in the file, as far as this instance wrote or saw them
+    private long compactedSize; // size right after the last rewrite
+
+    JobJournal(Path file, ObjectMapper mapper) {
+        this.file = file;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Read all complete entries, one line at a time. Must be called before the first append().
+     */
+    void replay(Consumer<JournalEntry> sink) throws IOException {
+        if (!Files.exists(file)) return;
+
+        long pos = 0;
+        long lineStart = 0;
+        ByteArrayOutputStream line = new ByteArrayOutputStream(1024);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 64 * 1024)) {
+            int b;
+            while ((b = in.read()) >= 0) {
+                pos++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                if (line.size() > 0) {
+                    try {
+                        sink.accept(mapper.readValue(line.toByteArray(), JournalEntry.class));
+                    } catch (IOException e) {
+                        log.warn("Skipping unreadable journal line at byte {}: {}", lineStart, e.toString());
+                    }
+                }
+                line.reset();
+                lineStart = pos;
+            }
+        }
+
+        if (lineStart < pos) {
+            log.warn("Dropping torn journal tail of {} bytes", pos - lineStart);
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ch.truncate(lineStart);
+                ch.force(true);
+            }
+        }
+        size = lineStart;
+    }
+
+    /**
+     * Replace the journal with the given entries (compaction), atomically.
+     */
+    synchronized void rewrite(List<JournalEntry> entries) throws IOException {
+        closeChannel();
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long written = 0;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (JournalEntry e : entries) written += write(ch, e);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        size = written;
+        compactedSize = written;
+    }
+
+    /**
+     * Rewrite the journal from {@code snapshot} if it has grown past both {@code minBytes} and twice
+     * its size after the last compaction. The snapshot is taken under the journal lock, so every
+     * append either is already reflected in it or lands after the rewrite.
+     *
+     * @return true if the journal was compacted
+     */
+    synchronized boolean compactIfGrown(long minBytes, Supplier<List<JournalEntry>> snapshot) throws IOException {
+        if (size < minBytes || size < 2 * compactedSize) return false;
+        long before = size;
+        rewrite(snapshot.get());
+        log.info("Compacted job journal from {} to {} bytes", before, size);
+        return true;
+    }
+
+    synchronized void append(JournalEntry entry) throws IOException {
+        if (channel == null || !channel.isOpen()) open();
+        try {
+            size += write(channel, entry);
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // e.g. ClosedByInterruptException: the channel is gone for good, the next append reopens it
+            channel = null;
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeChannel();
+    }
+
+    private void open() throws IOException {
+        // READ does not go with APPEND; this instance is the only writer, so positioning at the end is enough
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        size = channel.size();
+        channel.position(size);
+        // an earlier write may have been cut off mid-line; end that line so the next entry stays readable
+        if (size > 0) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            if (last.get(0) != '\n') {
+                size += channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+        }
+    }
+
+    private int write(FileChannel ch, JournalEntry entry) throws IOException {
+        byte[] json = mapper.writeValueAsBytes(entry);
+        ByteBuffer buf = ByteBuffer.allocate(json.length + 1);
+        buf.put(json).put((byte) '\n').flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        return json.length + 1;
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.artyom.readingassistant.jobs;
+
+import com.artyom.readingassistant.exception.JobQueueFullException;
+import com.artyom.readingassistant.exception.OverloadedException;
+import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.model.JobStatus;
+import com.artyom.readingassistant.model.PipelineStage;
+import com.artyom.readingassistant.service.ReadingPipeline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous batch analysis.
+ *
+ * - submit() journals the job, then queues one task per URL
+ * - a fixed pool of workers fetches and analyzes through ReadingPipeline; every finished URL is journaled
+ *   (a page without any extractable text counts as failed)
+ * - the number of queued URLs is bounded: a job that does not fit is rejected up front
+ *   (JobQueueFullException) instead of piling up behind the workers
+ * - finished URLs keep their results without the article text, in memory as in the journal
+ * - on startup the journal is replayed: finished URLs keep their results,
+ *   everything else is queued again; while running, the journal is compacted whenever it doubles
+ * - on shutdown queued URLs are not started, running ones get a grace period; anything cut short
+ *   is not journaled and runs again after restart
+ */
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    // configurable defaults (can be moved to application.properties later)
+    private static final int WORKERS = 4;
+    private static final int MAX_QUEUED_URLS = 1000;
+    private static final int MAX_URLS_PER_JOB = 500;
+    private static final int MAX_RETAINED_FINISHED_JOBS = 1000;
+    private static final String JOURNAL_FILE = "journal.ndjson";
+    private static final long MIN_COMPACT_JOURNAL_BYTES = 16L * 1024 * 1024;
+    private static final int SHUTDOWN_GRACE_SECONDS = 30;
+
+    private final ReadingPipeline pipeline;
+    private final JobJournal journal;
+    private final ExecutorService workers;
+    private final AtomicInteger queuedUrls = new AtomicInteger();
+    private volatile boolean closing;
+
+    // insertion ordered, so the oldest finished jobs are dropped first
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public JobService(ReadingPipeline pipeline, ObjectMapper objectMapper,
+                      @Value("${reading.jobs.dir:jobs}") String dir) throws IOException {
+        this.pipeline = pipeline;
+
+        Path journalDir = Path.of(dir);
+        Files.createDirectories(journalDir);
+        this.journal = new JobJournal(journalDir.resolve(JOURNAL_FILE), objectMapper);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(WORKERS, r -> {
+            Thread t = new Thread(r, "job-worker-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        recover();
+    }
+
+    /**
+     * Accept a batch of URLs.
+     *
+     * @throws IllegalArgumentException if the list is empty or too long
+     * @throws JobQueueFullException    if the queue has no room for all URLs of the job
+     */
+    public JobStatus submit(List<String> urls) {
+        if (urls == null || urls.isEmpty()) throw new IllegalArgumentException("urls must be provided");
+        if (urls.size() > MAX_URLS_PER_JOB) {
+            throw new IllegalArgumentException("at most " + MAX_URLS_PER_JOB + " urls per job");
+        }
+        for (String url : urls) {
+            if (url == null || url.isBlank()) throw new IllegalArgumentException("urls must not be blank");
+        }
+
+        // reserve queue capacity first (backpressure), release it if anything below fails
+        int after = queuedUrls.addAndGet(urls.size());
+        if (after > MAX_QUEUED_URLS) {
+            queuedUrls.addAndGet(-urls.size());
+            throw new JobQueueFullException("job queue is full (" + (after - urls.size()) + " urls queued)");
+        }
+
+        // registered before it is journaled, so a concurrent compaction cannot leave the job out
+        Job job = new Job(UUID.randomUUID().toString(), System.currentTimeMillis(), urls);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        try {
+            journal.append(JournalEntry.job(job.id, job.createdAt, job.urls));
+        } catch (IOException e) {
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            queuedUrls.addAndGet(-urls.size());
+            throw new UncheckedIOException("could not journal job", e);
+        }
+
+        for (int i = 0; i < job.urls.size(); i++) enqueue(job, i);
+
+        log.info("Accepted job {} with {} urls", job.id, urls.size());
+        return job.toStatus();
+    }
+
+    public Optional<JobStatus> status(String id) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        return Optional.ofNullable(job).map(Job::toStatus);
+    }
+
+    private void enqueue(Job job, int index) {
+        workers.execute(() -> run(job, index));
+    }
+
+    private void run(Job job, int index) {
+        String url = job.urls.get(index);
+        try {
+            // shutting down: neither started nor journaled, so the URL runs again after restart
+            if (closing) return;
+
+            job.running(index);
+            ArticleResult result = analyzeWhenAdmitted(url);
+            // the fetcher turns an interrupted download into an empty result; that must not be journaled as done
+            if (Thread.currentThread().isInterrupted()) return;
+            if (result.getText() == null || result.getText().isBlank()) {
+                throw new IllegalStateException("no article text could be extracted");
+            }
+            // in-memory state first: a compaction between the two lines then still sees the result
+            job.done(index, result);
+            journal.append(JournalEntry.done(job.id, index, result));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) return; // cut short by shutdown, not a real failure
+            log.warn("Job {} failed on {}: {}", job.id, url, e.toString());
+            job.failed(index, e.toString());
+            try {
+                journal.append(JournalEntry.failed(job.id, index, e.toString()));
+            } catch (IOException io) {
+                log.warn("Could not journal failure of job {}: {}", job.id, io.toString());
+            }
+        } finally {
+            queuedUrls.decrementAndGet();
+        }
+
+        if (job.isFinished()) {
+            log.info("Job {} finished", job.id);
+            evictOldJobs();
+        }
+        compactJournalIfGrown();
+    }
+
+    // Batch work is not urgent: when the pipeline sheds load, the worker waits and tries again.
+    // Fetch and analysis are retried separately, so a page shed by the analysis limit is not downloaded again
+    private ArticleResult analyzeWhenAdmitted(String url) throws InterruptedException {
+        ArticleResult fetched;
+        while (true) {
+            try {
+                fetched = pipeline.fetch(url);
+                break;
+            } catch (OverloadedException e) {
+                Thread.sleep(e.getRetryAfterSeconds() * 1000);
+            }
+        }
+        if (fetched == null) return new ArticleResult(url, "", "", List.of(), List.of(), List.of());
+
+        while (true) {
+            try {
+                return pipeline.analyzeWithinLimit(fetched, PipelineStage.DEFAULT);
+            } catch (OverloadedException e) {
+                Thread.sleep(e.getRetryAfterSeconds() * 1000);
+            }
+        }
+    }
+
+    private void evictOldJobs() {
+        synchronized (jobs) {
+            long finished = jobs.values().stream().filter(Job::isFinished).count();
+            Iterator<Job> it = jobs.values().iterator();
+            while (finished > MAX_RETAINED_FINISHED_JOBS && it.hasNext()) {
+                if (it.next().isFinished()) {
+                    it.remove();
+                    finished--;
+                }
+            }
+        }
+    }
+
+    private void compactJournalIfGrown() {
+        try {
+            journal.compactIfGrown(MIN_COMPACT_JOURNAL_BYTES, this::snapshot);
+        } catch (IOException e) {
+            log.warn("Could not compact job journal: {}", e.toString());
+        }
+    }
+
+    // Entries that reproduce the state of every retained job
+    private List<JournalEntry> snapshot() {
+        List<JournalEntry> entries = new ArrayList<>();
+        synchronized (jobs) {
+            for (Job job : jobs.values()) entries.addAll(job.toJournal());
+        }
+        return entries;
+    }
+
+    // Replay journal, compact it, resume unfinished URLs
+    private void recover() throws IOException {
+        journal.replay(e -> {
+            if (e.getType() == null || e.getId() == null) return;
+            switch (e.getType()) {
+                case JOB -> {
+                    if (e.getUrls() == null || e.getUrls().isEmpty()) return;
+                    long createdAt = e.getCreatedAt() == null ? 0 : e.getCreatedAt();
+                    // a job can be journaled twice when a compaction ran while it was submitted
+                    jobs.putIfAbsent(e.getId(), new Job(e.getId(), createdAt, e.getUrls()));
+                }
+                case DONE -> {
+                    Job job = jobs.get(e.getId());
+                    if (isValidItem(job, e) && e.getResult() != null) {
+                        job.done(e.getIndex(), e.getResult());
+                    }
+                }
+                case FAILED -> {
+                    Job job = jobs.get(e.getId());
+                    if (isValidItem(job, e)) job.failed(e.getIndex(), e.getError());
+                }
+            }
+        });
+        evictOldJobs();
+        journal.rewrite(snapshot());
+
+        int resumed = 0;
+        for (Job job : jobs.values()) {
+            for (int i = 0; i < job.urls.size(); i++) {
+                if (job.isPending(i)) {
+                    queuedUrls.incrementAndGet();
+                    enqueue(job, i);
+                    resumed++;
+                }
+            }
+        }
+        if (!jobs.isEmpty()) {
+            log.info("Recovered {} jobs from journal, resumed {} unfinished urls", jobs.size(), resumed);
+        }
+    }
+
+    private static boolean isValidItem(Job job, JournalEntry e) {
+        return job != null && e.getIndex() != null && e.getIndex() >= 0 && e.getIndex() < job.urls.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        // queued URLs return without starting; running ones may finish and be journaled
+        closing = true;
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                // whatever is interrupted now is not journaled, so it runs again after restart
+                workers.shutdownNow();
+                if (!workers.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+                    log.warn("Job workers did not stop within {} s", 2 * SHUTDOWN_GRACE_SECONDS);
+                }
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Could not close job journal: {}", e.toString());
+        }
+    }
+}
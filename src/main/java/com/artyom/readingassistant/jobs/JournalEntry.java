@@ -0,0 +1,66 @@
+package com.artyom.readingassistant.jobs;
+
+import com.artyom.readingassistant.model.ArticleResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One line of the job journal (NDJSON). Which fields are set depends on the type:
+ *  - JOB:    id, createdAt, urls
+ *  - DONE:   id, index, result without the article text (it would make the journal grow with every page;
+ *            an item recovered after a restart has text null)
+ *  - FAILED: id, index, error
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JournalEntry {
+
+    public enum Type { JOB, DONE, FAILED }
+
+    private Type type;
+    private String id;
+    private Long createdAt;
+    private List<String> urls;
+    private Integer index;
+    private ArticleResult result;
+    private String error;
+
+    static JournalEntry job(String id, long createdAt, List<String> urls) {
+        JournalEntry e = new JournalEntry();
+        e.type = Type.JOB;
+        e.id = id;
+        e.createdAt = createdAt;
+        e.urls = urls;
+        return e;
+    }
+
+    static JournalEntry done(String id, int index, ArticleResult result) {
+        JournalEntry e = new JournalEntry();
+        e.type = Type.DONE;
+        e.id = id;
+        e.index = index;
+        e.result = withoutText(result);
+        return e;
+    }
+
+    static JournalEntry failed(String id, int index, String error) {
+        JournalEntry e = new JournalEntry();
+        e.type = Type.FAILED;
+        e.id = id;
+        e.index = index;
+        e.error = error;
+        return e;
+    }
+
+    static ArticleResult withoutText(ArticleResult r) {
+        if (r == null || r.getText() == null) return r;
+        ArticleResult copy = new ArticleResult(r.getUrl(), r.getTitle(), null,
+                r.getSummary(), r.getKeyIdeas(), r.getActionItems());
+        copy.setSectionSummaries(r.getSectionSummaries());
+        return copy;
+    }
+}
@@ -0,0 +1,53 @@
+package com.artyom.readingassistant.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Top-level fields of an analyze response; used for the {@code fields=} projection.
+ */
+public enum ArticleField {
+    URL("url"),
+    TITLE("title"),
+    TEXT("text"),
+    SUMMARY("summary"),
+    KEY_IDEAS("keyIdeas"),
+    ACTION_ITEMS("actionItems"),
+    SECTION_SUMMARIES("sectionSummaries");
+
+    private final String jsonName;
+
+    ArticleField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Parse a comma separated list of JSON field names, e.g. "title,summary".
+     * Blank input means all fields.
+     *
+     * @throws IllegalArgumentException on an unknown field name
+     */
+    public static Set<ArticleField> parse(String csv) {
+        if (csv == null || csv.isBlank()) return EnumSet.allOf(ArticleField.class);
+
+        Set<ArticleField> fields = EnumSet.noneOf(ArticleField.class);
+        for (String raw : csv.split(",")) {
+            String name = raw.trim();
+            if (name.isEmpty()) continue;
+            fields.add(fromJsonName(name));
+        }
+        return fields;
+    }
+
+    private static ArticleField fromJsonName(String name) {
+        for (ArticleField f : values()) {
+            if (f.jsonName.equalsIgnoreCase(name) || f.name().equals(name.toUpperCase(Locale.ROOT))) return f;
+        }
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+}
@@ -1,5 +1,7 @@
 package com.artyom.readingassistant.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.util.List;
@@ -8,7 +10,6 @@ import java.util.List;
  * DTO for API responses. Holds both raw text and processed parts (summary, key ideas, action items).
  */
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
@@ -19,6 +20,10 @@ public class ArticleResult {
     private List<String> summary; // top sentences
     private List<String> keyIdeas;
     private List<String> actionItems; // simple string form of action items
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<SectionSummary> sectionSummaries; // only with the "sections" stage
+    @JsonIgnore
+    private List<SectionHeading> sectionHeadings; // section starts seen by ArticleFetcher
 
     public ArticleResult(String url, String title, String text) {
         this.url = url;
@@ -26,4 +31,14 @@ public class ArticleResult {
         this.text = text;
     }
 
+    public ArticleResult(String url, String title, String text,
+                         List<String> summary, List<String> keyIdeas, List<String> actionItems) {
+        this.url = url;
+        this.title = title;
+        this.text = text;
+        this.summary = summary;
+        this.keyIdeas = keyIdeas;
+        this.actionItems = actionItems;
+    }
+
 }
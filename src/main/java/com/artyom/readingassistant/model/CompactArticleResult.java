@@ -0,0 +1,158 @@
+package com.artyom.readingassistant.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.*;
+
+/**
+ * Memory-compact form of {@link ArticleResult}.
+ *
+ * Summary, key-idea and action-item sentences are almost always substrings of the article text,
+ * so instead of separate String copies they are stored as [start, end) int spans into the one
+ * shared text. A fragment that cannot be found in the text (e.g. whitespace was normalized)
+ * is kept as a String in {@code extras} and referenced by a negative start.
+ *
+ * Section summaries are few and short, so they are kept as they are.
+ *
+ * The saving only matters where results are held for a while: the jobs store keeps every finished
+ * item in this form ({@link #of}) for the lifetime of the job. For a single /api/analyze response
+ * the ArticleResult exists anyway, so {@link #view} wraps it without the span search and this
+ * class only provides the field projection.
+ *
+ * Serialized by {@link CompactArticleResultSerializer} straight from the spans, producing the same
+ * JSON as ArticleResult, limited to the selected {@link ArticleField}s.
+ */
+@JsonSerialize(using = CompactArticleResultSerializer.class)
+public final class CompactArticleResult {
+
+    final String url;
+    final String title;
+    final String text;       // null if the article had none
+    final int[] summary;     // pairs of (start, end); null if the list was null
+    final int[] keyIdeas;
+    final int[] actionItems;
+    final String[] extras;
+    final List<SectionSummary> sectionSummaries;
+    final Set<ArticleField> fields;
+
+    private CompactArticleResult(String url, String title, String text, int[] summary, int[] keyIdeas,
+                                 int[] actionItems, String[] extras, List<SectionSummary> sectionSummaries,
+                                 Set<ArticleField> fields) {
+        this.url = url;
+        this.title = title;
+        this.text = text;
+        this.summary = summary;
+        this.keyIdeas = keyIdeas;
+        this.actionItems = actionItems;
+        this.extras = extras;
+        this.sectionSummaries = sectionSummaries;
+        this.fields = fields;
+    }
+
+    public static CompactArticleResult of(ArticleResult r) {
+        String text = r.getText();
+        List<String> extras = new ArrayList<>();
+        return new CompactArticleResult(
+                r.getUrl(),
+                r.getTitle(),
+                text,
+                spans(text, r.getSummary(), extras),
+                spans(text, r.getKeyIdeas(), extras),
+                spans(text, r.getActionItems(), extras),
+                extras.toArray(new String[0]),
+                r.getSectionSummaries(),
+                EnumSet.allOf(ArticleField.class));
+    }
+
+    /**
+     * Wraps the result as it is: every fragment is referenced as an extra, no span search.
+     * For results that are serialized once and dropped.
+     */
+    public static CompactArticleResult view(ArticleResult r) {
+        List<String> extras = new ArrayList<>();
+        return new CompactArticleResult(
+                r.getUrl(),
+                r.getTitle(),
+                r.getText(),
+                extras(r.getSummary(), extras),
+                extras(r.getKeyIdeas(), extras),
+                extras(r.getActionItems(), extras),
+                extras.toArray(new String[0]),
+                r.getSectionSummaries(),
+                EnumSet.allOf(ArticleField.class));
+    }
+
+    /**
+     * Projection view sharing all data with this instance.
+     */
+    public CompactArticleResult withFields(Set<ArticleField> selected) {
+        Set<ArticleField> copy = selected.isEmpty() ? EnumSet.noneOf(ArticleField.class) : EnumSet.copyOf(selected);
+        return new CompactArticleResult(url, title, text, summary, keyIdeas, actionItems, extras,
+                sectionSummaries, copy);
+    }
+
+    public ArticleResult toArticleResult() {
+        ArticleResult r = new ArticleResult(url, title, text,
+                fragments(summary), fragments(keyIdeas), fragments(actionItems));
+        r.setSectionSummaries(sectionSummaries);
+        return r;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    int[] spans(ArticleField field) {
+        return switch (field) {
+            case SUMMARY -> summary;
+            case KEY_IDEAS -> keyIdeas;
+            case ACTION_ITEMS -> actionItems;
+            default -> throw new IllegalArgumentException(field + " is not a list field");
+        };
+    }
+
+    private List<String> fragments(int[] spans) {
+        if (spans == null) return null;
+        List<String> out = new ArrayList<>(spans.length / 2);
+        for (int i = 0; i < spans.length; i += 2) {
+            out.add(spans[i] < 0 ? extras[-spans[i] - 1] : text.substring(spans[i], spans[i + 1]));
+        }
+        return out;
+    }
+
+    private static int[] extras(List<String> fragments, List<String> extras) {
+        if (fragments == null) return null;
+        int[] spans = new int[fragments.size() * 2];
+        for (int i = 0; i < fragments.size(); i++) {
+            extras.add(fragments.get(i) == null ? "" : fragments.get(i));
+            spans[2 * i] = -extras.size();
+        }
+        return spans;
+    }
+
+    // Fragments usually follow the text order, so search forward from the previous match first
+    private static int[] spans(String text, List<String> fragments, List<String> extras) {
+        if (fragments == null) return null;
+        int[] spans = new int[fragments.size() * 2];
+        int cursor = 0;
+        for (int i = 0; i < fragments.size(); i++) {
+            String f = fragments.get(i) == null ? "" : fragments.get(i);
+            int start = text == null ? -1 : text.indexOf(f, cursor);
+            if (start < 0 && text != null) start = text.indexOf(f);
+            if (start < 0) {
+                extras.add(f);
+                spans[2 * i] = -extras.size();
+                spans[2 * i + 1] = 0;
+            } else {
+                spans[2 * i] = start;
+                spans[2 * i + 1] = start + f.length();
+                cursor = start + f.length();
+            }
+        }
+        return spans;
+    }
+}
@@ -0,0 +1,88 @@
+package com.artyom.readingassistant.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a {@link CompactArticleResult} directly from its spans: fragment chars are copied from
+ * the shared text into one reusable buffer, no per-fragment String is created.
+ * Field order and names are the same as for ArticleResult.
+ */
+public class CompactArticleResultSerializer extends StdSerializer<CompactArticleResult> {
+
+    public CompactArticleResultSerializer() {
+        super(CompactArticleResult.class);
+    }
+
+    @Override
+    public void serialize(CompactArticleResult r, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        char[] buf = new char[256];
+
+        for (ArticleField field : ArticleField.values()) {
+            if (!r.fields.contains(field)) continue;
+            // like ArticleResult, which leaves it out when null
+            if (field == ArticleField.SECTION_SUMMARIES && r.sectionSummaries == null) continue;
+            gen.writeFieldName(field.getJsonName());
+
+            switch (field) {
+                case URL -> writeNullable(gen, r.url);
+                case TITLE -> writeNullable(gen, r.title);
+                case TEXT -> writeNullable(gen, r.text);
+                case SECTION_SUMMARIES -> writeSections(gen, r.sectionSummaries);
+                default -> buf = writeSpans(gen, r, r.spans(field), buf);
+            }
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static char[] writeSpans(JsonGenerator gen, CompactArticleResult r, int[] spans, char[] buf) throws IOException {
+        if (spans == null) {
+            gen.writeNull();
+            return buf;
+        }
+        gen.writeStartArray();
+        for (int i = 0; i < spans.length; i += 2) {
+            int start = spans[i];
+            if (start < 0) {
+                gen.writeString(r.extras[-start - 1]);
+                continue;
+            }
+            int len = spans[i + 1] - start;
+            if (len > buf.length) buf = new char[Math.max(len, buf.length * 2)];
+            r.text.getChars(start, start + len, buf, 0);
+            gen.writeString(buf, 0, len);
+        }
+        gen.writeEndArray();
+        return buf;
+    }
+
+    private static void writeSections(JsonGenerator gen, List<SectionSummary> sections) throws IOException {
+        gen.writeStartArray();
+        for (SectionSummary s : sections) {
+            gen.writeStartObject();
+            gen.writeFieldName("heading");
+            writeNullable(gen, s.getHeading());
+            gen.writeFieldName("summary");
+            if (s.getSummary() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartArray();
+                for (String sentence : s.getSummary()) writeNullable(gen, sentence);
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeNullable(JsonGenerator gen, String value) throws IOException {
+        if (value == null) gen.writeNull();
+        else gen.writeString(value);
+    }
+}
@@ -0,0 +1,18 @@
+package com.artyom.readingassistant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status of one URL of a batch job; {@code result} is set once it is DONE, {@code error} if it FAILED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobItemStatus {
+    private String url;
+    private JobState state;
+    private CompactArticleResult result;
+    private String error;
+}
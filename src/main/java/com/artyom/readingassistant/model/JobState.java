@@ -0,0 +1,11 @@
+package com.artyom.readingassistant.model;
+
+/**
+ * Lifecycle of a batch job and of each URL inside it.
+ */
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
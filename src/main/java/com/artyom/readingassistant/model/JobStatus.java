@@ -0,0 +1,23 @@
+package com.artyom.readingassistant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of POST /api/jobs and GET /api/jobs/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStatus {
+    private String id;
+    private JobState state;
+    private long createdAt; // epoch millis
+    private int total;
+    private int completed;
+    private int failed;
+    private List<JobItemStatus> items;
+}
@@ -0,0 +1,83 @@
+package com.artyom.readingassistant.model;
+
+import java.util.*;
+
+/**
+ * Stages of the reading pipeline and what each of them needs.
+ * Requesting a stage implies all of its dependencies; nothing else is run.
+ *
+ * <pre>
+ *   FETCH <- PREPROCESS <- SUMMARY
+ *                       <- KEY_IDEAS
+ *         <- ACTION_ITEMS
+ *         <- SECTIONS
+ * </pre>
+ *
+ * SECTIONS (per-section summaries, and a summary picked across them) is opt-in:
+ * it is not part of {@link #DEFAULT}.
+ *
+ * A constant can only name constants declared before it, so declaration order is always a valid
+ * execution order. The paragraph-level stages run from IncrementalAnalyzer's step table in that order;
+ * FETCH and SECTIONS work on the whole document and are run by ReadingPipeline.
+ */
+public enum PipelineStage {
+    FETCH("fetch"),
+    PREPROCESS("preprocess", FETCH),
+    SUMMARY("summary", PREPROCESS),
+    KEY_IDEAS("keyIdeas", PREPROCESS),
+    ACTION_ITEMS("actionItems", FETCH),
+    SECTIONS("sections", FETCH);
+
+    public static final Set<PipelineStage> DEFAULT = Collections.unmodifiableSet(
+            EnumSet.of(FETCH, PREPROCESS, SUMMARY, KEY_IDEAS, ACTION_ITEMS));
+
+    private final String paramName;
+    private final List<PipelineStage> dependencies;
+
+    PipelineStage(String paramName, PipelineStage... dependencies) {
+        this.paramName = paramName;
+        this.dependencies = List.of(dependencies);
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    /**
+     * Requested stages plus everything they depend on.
+     */
+    public static Set<PipelineStage> resolve(Collection<PipelineStage> requested) {
+        Set<PipelineStage> resolved = EnumSet.noneOf(PipelineStage.class);
+        Deque<PipelineStage> todo = new ArrayDeque<>(requested);
+        while (!todo.isEmpty()) {
+            PipelineStage stage = todo.pop();
+            if (resolved.add(stage)) todo.addAll(stage.dependencies);
+        }
+        return resolved;
+    }
+
+    /**
+     * Parse a comma separated list such as "summary,keyIdeas" and resolve dependencies.
+     * Blank input means the default stages.
+     *
+     * @throws IllegalArgumentException on an unknown stage name
+     */
+    public static Set<PipelineStage> parse(String csv) {
+        if (csv == null || csv.isBlank()) return DEFAULT;
+
+        List<PipelineStage> requested = new ArrayList<>();
+        for (String raw : csv.split(",")) {
+            String name = raw.trim();
+            if (name.isEmpty()) continue;
+            requested.add(fromParamName(name));
+        }
+        return resolve(requested);
+    }
+
+    private static PipelineStage fromParamName(String name) {
+        for (PipelineStage s : values()) {
+            if (s.paramName.equalsIgnoreCase(name) || s.name().equals(name.toUpperCase(Locale.ROOT))) return s;
+        }
+        throw new IllegalArgumentException("Unknown stage: " + name);
+    }
+}
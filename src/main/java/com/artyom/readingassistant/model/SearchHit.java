@@ -0,0 +1,20 @@
+package com.artyom.readingassistant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One ranked result of GET /api/search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private String url;
+    private String title;
+    private double score; // BM25 score, higher is better
+    private List<SearchSnippet> snippets;
+}
@@ -0,0 +1,21 @@
+package com.artyom.readingassistant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Highlight for a single field of a search hit.
+ * {@code start}/{@code end} point at the matched term inside the field text,
+ * {@code fragmentStart} is where {@code fragment} begins in that same text.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchSnippet {
+    private String field; // title, summary, keyIdeas or actionItems
+    private int start;
+    private int end;
+    private int fragmentStart;
+    private String fragment;
+}
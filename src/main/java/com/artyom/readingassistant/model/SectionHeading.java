@@ -0,0 +1,20 @@
+package com.artyom.readingassistant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Where a section of the extracted text begins: an h1/h2/h3 heading and the first paragraph
+ * under it that made it into the text (the heading itself when it is long enough to be kept).
+ * The same paragraph text can occur more than once (a repeated "See the table below."), so the
+ * start is the occurrence-th copy of it, counting from 0.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SectionHeading {
+    private String heading;
+    private String firstParagraph;
+    private int occurrence;
+}
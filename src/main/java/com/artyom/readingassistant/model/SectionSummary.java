@@ -0,0 +1,18 @@
+package com.artyom.readingassistant.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Summary of one h1/h2/h3 section of a long document.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SectionSummary {
+    private String heading; // null for the text before the first heading
+    private List<String> summary;
+}
@@ -0,0 +1,20 @@
+package com.artyom.readingassistant.replay;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One saved page: the URL it was served from (if known) and its raw HTML bytes.
+ * The body is usually a slice of a memory-mapped file, so it is only valid while being processed.
+ */
+final class CorpusDocument {
+
+    final String url;     // may be null for plain HTML files, then taken from the page itself
+    final String source;  // file (and record offset) for logs
+    final ByteBuffer body;
+
+    CorpusDocument(String url, String source, ByteBuffer body) {
+        this.url = url;
+        this.source = source;
+        this.body = body;
+    }
+}
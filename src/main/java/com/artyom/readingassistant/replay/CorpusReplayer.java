@@ -0,0 +1,260 @@
+package com.artyom.readingassistant.replay;
+
+import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.service.ArticleFetcher;
+import com.artyom.readingassistant.service.ReadingPipeline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Offline replay of saved pages through the regular extraction and analysis stages.
+ *
+ * Input: a directory (searched recursively) of *.html / *.htm files and *.warc / *.warc.gz archives.
+ * Files are memory-mapped and parsed straight from the mapping (compressed archives are inflated
+ * from it one record at a time). Pages are processed in parallel,
+ * with a bounded number in flight; every result is written as one JSON line (NDJSON), in input order
+ * (files sorted by path, WARC records in file order), so two runs over the same corpus can be diffed.
+ * No network access is made, so this is also a way to run the pipeline in tests.
+ *
+ * Replay goes through the same components as live traffic and changes their state like live traffic
+ * does: results are added to the search index, selectors are learned into the extraction rules file,
+ * boilerplate statistics and the analyzer cache are fed. For a run that leaves the index and the rules
+ * of a deployment untouched, point reading.index.dir, reading.extraction.rules-file and reading.jobs.dir
+ * elsewhere (the command line does this with --isolated).
+ */
+@Service
+public class CorpusReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(CorpusReplayer.class);
+
+    private final ArticleFetcher fetcher;
+    private final ReadingPipeline pipeline;
+    private final ObjectMapper objectMapper;
+
+    public CorpusReplayer(ArticleFetcher fetcher, ReadingPipeline pipeline, ObjectMapper objectMapper) {
+        this.fetcher = fetcher;
+        this.pipeline = pipeline;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Summary of one replay run.
+     */
+    public static final class Stats {
+        public final int processed;
+        public final int failed;
+        public final long millis;
+
+        Stats(int processed, int failed, long millis) {
+            this.processed = processed;
+            this.failed = failed;
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * @param inputDir    directory with saved pages
+     * @param output      NDJSON file to (over)write
+     * @param parallelism number of worker threads
+     */
+    public Stats replay(Path inputDir, Path output, int parallelism) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        // walking the corpus never runs far ahead: a permit comes back only when the page's line is written
+        // (or skipped), so this also bounds the results waiting for an earlier, slower page
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            OrderedOutput out = new OrderedOutput(writer, inFlight);
+            boolean walked = false;
+            try (Stream<Path> files = Files.walk(inputDir)) {
+                walk(files, workers, out, processed, failed);
+                walked = true;
+            } finally {
+                // the workers write into the writer, so they are stopped and joined before it is closed
+                if (walked) workers.shutdown();
+                else workers.shutdownNow();
+                join(workers);
+            }
+            out.rethrow();
+        }
+
+        Stats stats = new Stats(processed.get(), failed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Replayed {} pages ({} failed) from {} in {} ms", stats.processed, stats.failed, inputDir, stats.millis);
+        return stats;
+    }
+
+    private void walk(Stream<Path> files, ExecutorService workers, OrderedOutput out,
+                      AtomicInteger processed, AtomicInteger failed) {
+        for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            boolean html = name.endsWith(".html") || name.endsWith(".htm");
+            boolean warc = name.endsWith(".warc");
+            boolean warcGz = name.endsWith(".warc.gz");
+            if (!html && !warc && !warcGz) continue;
+
+            ByteBuffer mapped = map(file);
+            if (mapped == null) {
+                failed.incrementAndGet();
+                continue;
+            }
+
+            if (html) {
+                submit(new CorpusDocument(null, file.toString(), mapped), file, workers, out, processed, failed);
+            } else if (warc) {
+                WarcReader.read(mapped, file.toString(),
+                        doc -> submit(doc, file, workers, out, processed, failed));
+            } else {
+                try {
+                    WarcReader.readGzip(mapped, file.toString(),
+                            doc -> submit(doc, file, workers, out, processed, failed));
+                } catch (IOException e) {
+                    // records read before the damage are kept
+                    log.warn("Could not read {}: {}", file, e.toString());
+                    failed.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void submit(CorpusDocument doc, Path file, ExecutorService workers, OrderedOutput out,
+                        AtomicInteger processed, AtomicInteger failed) {
+        int seq = out.reserve();
+        try {
+            workers.execute(() -> {
+                String line = null;
+                try {
+                    line = objectMapper.writeValueAsString(process(doc, file));
+                    processed.incrementAndGet();
+                } catch (Exception e) {
+                    log.warn("Failed to replay {}: {}", doc.source, e.toString());
+                    failed.incrementAndGet();
+                } finally {
+                    out.complete(seq, line);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            out.complete(seq, null);
+            throw e;
+        }
+    }
+
+    private static void join(ExecutorService workers) throws InterruptedException {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (workers.awaitTermination(1, TimeUnit.MINUTES)) break;
+            } catch (InterruptedException e) {
+                // still wait: the writer must not be closed under a running worker
+                interrupted = true;
+                workers.shutdownNow();
+            }
+        }
+        if (interrupted) throw new InterruptedException("replay interrupted");
+    }
+
+    private ArticleResult process(CorpusDocument doc, Path file) throws IOException {
+        String baseUri = doc.url != null ? doc.url : file.toUri().toString();
+        Document page = Jsoup.parse(new ByteBufferInputStream(doc.body), null, baseUri);
+        String url = doc.url != null ? doc.url : originalUrl(page, baseUri);
+        return pipeline.analyzeFetched(fetcher.extract(url, page));
+    }
+
+    // Saved HTML files usually still carry their canonical address
+    private static String originalUrl(Document page, String fallback) {
+        for (String selector : List.of("link[rel=canonical]", "meta[property=og:url]")) {
+            Element el = page.selectFirst(selector);
+            if (el == null) continue;
+            String value = el.hasAttr("href") ? el.absUrl("href") : el.attr("content");
+            if (value != null && !value.isBlank()) return value.trim();
+        }
+        return fallback;
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                log.warn("File too large to map, skipping {}", file);
+                return null;
+            }
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            log.warn("Could not read {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Writes result lines in the order the pages were submitted, whatever order they finish in.
+     * Out-of-order results wait in a small map; its size is bounded by the in-flight permits.
+     * A write error is kept and rethrown at the end, the remaining results are still drained
+     * so that the walking thread is never left waiting for permits.
+     */
+    private static final class OrderedOutput {
+
+        private final Writer writer;
+        private final Semaphore inFlight;
+        private final Map<Integer, String> done = new HashMap<>();
+        private int nextReserved;
+        private int nextToWrite;
+        private IOException writeError;
+
+        OrderedOutput(Writer writer, Semaphore inFlight) {
+            this.writer = writer;
+            this.inFlight = inFlight;
+        }
+
+        // called by the walking thread only
+        int reserve() {
+            inFlight.acquireUninterruptibly();
+            return nextReserved++;
+        }
+
+        // line null: the page failed and leaves no line
+        synchronized void complete(int seq, String line) {
+            done.put(seq, line == null ? "" : line);
+            String next;
+            while ((next = done.remove(nextToWrite)) != null) {
+                nextToWrite++;
+                inFlight.release();
+                if (next.isEmpty() || writeError != null) continue;
+                try {
+                    writer.write(next);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    writeError = e;
+                }
+            }
+        }
+
+        synchronized void rethrow() throws IOException {
+            if (writeError != null) throw writeError;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.artyom.readingassistant.replay;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Minimal reader for WARC files held in a (memory-mapped) buffer.
+ *
+ * Only "response" records with an HTML payload are emitted; the HTTP status line and headers
+ * are stripped, chunked transfer encoding and gzip content encoding are undone. Everything else
+ * (request, metadata, warcinfo, non-HTML responses) is skipped by its Content-Length without being read.
+ *
+ * Compressed archives (*.warc.gz, one gzip member per record as crawlers write them) are inflated
+ * as a stream, one record at a time; only the record being looked at is held in memory.
+ */
+final class WarcReader {
+
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+    private static final int CRLF_CRLF = 0x0D0A0D0A;
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+
+    private WarcReader() {
+    }
+
+    static void read(ByteBuffer warc, String source, Consumer<CorpusDocument> consumer) {
+        int pos = 0;
+        int limit = warc.limit();
+
+        while (pos < limit) {
+            int headerEnd = indexOf(warc, HEADER_END, pos, limit);
+            if (headerEnd < 0) return; // trailing garbage or truncated file
+
+            Map<String, String> headers = parseHeaders(warc, pos, headerEnd);
+            int blockStart = headerEnd + HEADER_END.length;
+            long length = parseLong(headers.get("content-length"));
+            if (length < 0 || blockStart + length > limit) return; // truncated record
+
+            int blockEnd = (int) (blockStart + length);
+            if (isHttpResponse(headers)) {
+                ByteBuffer body = httpHtmlBody(warc, blockStart, blockEnd);
+                if (body != null) {
+                    consumer.accept(new CorpusDocument(headers.get("warc-target-uri"),
+                            source + "@" + pos, body));
+                }
+            }
+
+            // records are separated by two CRLFs
+            pos = blockEnd;
+            while (pos < limit && (warc.get(pos) == '\r' || warc.get(pos) == '\n')) pos++;
+        }
+    }
+
+    /**
+     * Same as {@link #read}, for a gzip-compressed archive. Record positions in the source name
+     * are offsets into the uncompressed stream.
+     */
+    static void readGzip(ByteBuffer gz, String source, Consumer<CorpusDocument> consumer) throws IOException {
+        // GZIPInputStream reads on through concatenated members
+        try (InputStream in = new BufferedInputStream(
+                new GZIPInputStream(new ByteBufferInputStream(gz), 64 * 1024), 64 * 1024)) {
+            long pos = 0;
+            ByteArrayOutputStream head = new ByteArrayOutputStream(1024);
+            while (true) {
+                // records are separated by two CRLFs
+                int b = in.read();
+                while (b == '\r' || b == '\n') {
+                    pos++;
+                    b = in.read();
+                }
+                if (b < 0) return;
+
+                long recordStart = pos;
+                head.reset();
+                int last4 = 0;
+                while (true) {
+                    head.write(b);
+                    pos++;
+                    last4 = (last4 << 8) | b;
+                    if (last4 == CRLF_CRLF) break;
+                    if (head.size() >= MAX_HEADER_BYTES) return; // not a WARC header
+                    b = in.read();
+                    if (b < 0) return; // truncated file
+                }
+
+                ByteBuffer header = ByteBuffer.wrap(head.toByteArray());
+                Map<String, String> headers = parseHeaders(header, 0, header.limit() - HEADER_END.length);
+                long length = parseLong(headers.get("content-length"));
+                if (length < 0 || length > Integer.MAX_VALUE) return;
+
+                if (isHttpResponse(headers)) {
+                    byte[] block = in.readNBytes((int) length);
+                    if (block.length < length) return; // truncated record
+                    ByteBuffer body = httpHtmlBody(ByteBuffer.wrap(block), 0, block.length);
+                    if (body != null) {
+                        consumer.accept(new CorpusDocument(headers.get("warc-target-uri"),
+                                source + "@" + recordStart, body));
+                    }
+                } else {
+                    try {
+                        in.skipNBytes(length);
+                    } catch (EOFException e) {
+                        return; // truncated record
+                    }
+                }
+                pos += length;
+            }
+        }
+    }
+
+    private static boolean isHttpResponse(Map<String, String> headers) {
+        return headers.getOrDefault("warc-type", "").equals("response")
+                && headers.getOrDefault("content-type", "").startsWith("application/http");
+    }
+
+    // Strip the HTTP response head and undo the transfer and content encodings;
+    // null if it is not an HTML response or its encoding is not supported
+    private static ByteBuffer httpHtmlBody(ByteBuffer warc, int start, int end) {
+        int headEnd = indexOf(warc, HEADER_END, start, end);
+        if (headEnd < 0) return null;
+
+        Map<String, String> http = parseHeaders(warc, start, headEnd);
+        String contentType = http.getOrDefault("content-type", "").toLowerCase(Locale.ROOT);
+        if (!contentType.contains("html")) return null;
+
+        ByteBuffer body = warc.duplicate();
+        body.limit(end).position(headEnd + HEADER_END.length);
+        body = body.slice();
+
+        if (http.getOrDefault("transfer-encoding", "").toLowerCase(Locale.ROOT).contains("chunked")) {
+            body = dechunk(body);
+        }
+
+        String encoding = http.getOrDefault("content-encoding", "").trim().toLowerCase(Locale.ROOT);
+        return switch (encoding) {
+            case "", "identity" -> body;
+            case "gzip", "x-gzip" -> gunzip(body);
+            default -> null; // e.g. br: the bytes would be parsed as garbage text
+        };
+    }
+
+    private static ByteBuffer gunzip(ByteBuffer body) {
+        try (InputStream in = new GZIPInputStream(new ByteBufferInputStream(body))) {
+            return ByteBuffer.wrap(in.readAllBytes());
+        } catch (IOException e) {
+            return null; // corrupt or truncated payload
+        }
+    }
+
+    private static ByteBuffer dechunk(ByteBuffer chunked) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(chunked.remaining());
+        int pos = 0;
+        int limit = chunked.limit();
+        while (pos < limit) {
+            int lineEnd = indexOf(chunked, new byte[]{'\r', '\n'}, pos, limit);
+            if (lineEnd < 0) break;
+            String sizeLine = ascii(chunked, pos, lineEnd);
+            int semicolon = sizeLine.indexOf(';');
+            if (semicolon >= 0) sizeLine = sizeLine.substring(0, semicolon);
+            int size;
+            try {
+                size = Integer.parseInt(sizeLine.trim(), 16);
+            } catch (NumberFormatException e) {
+                break;
+            }
+            if (size == 0) break;
+            int dataStart = lineEnd + 2;
+            int dataEnd = Math.min(limit, dataStart + size);
+            for (int i = dataStart; i < dataEnd; i++) out.write(chunked.get(i));
+            pos = dataEnd + 2;
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    // First line (WARC/1.0 or HTTP status line) is skipped, header names are lower-cased
+    private static Map<String, String> parseHeaders(ByteBuffer buf, int start, int end) {
+        Map<String, String> headers = new HashMap<>();
+        String[] lines = ascii(buf, start, end).split("\r\n");
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) continue;
+            headers.put(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                    lines[i].substring(colon + 1).trim());
+        }
+        return headers;
+    }
+
+    private static String ascii(ByteBuffer buf, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buf.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static long parseLong(String s) {
+        if (s == null) return -1;
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int indexOf(ByteBuffer buf, byte[] pattern, int from, int to) {
+        outer:
+        for (int i = from; i <= to - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (buf.get(i + j) != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,332 @@
+package com.artyom.readingassistant.search;
+
+import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.model.SearchHit;
+import com.artyom.readingassistant.model.SearchSnippet;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Embedded full-text index over analyzed articles.
+ *
+ * How it works:
+ *  - add() buffers documents in memory; they are searchable immediately
+ *  - a background thread flushes the buffer into an immutable segment file
+ *  - when there are too many segments, the smallest ones are merged into one
+ *    (dropping documents that were replaced by a newer analysis of the same URL)
+ *  - search() ranks with BM25 over title, summary, key ideas and action items
+ *    and never touches the network: everything it needs is stored in the segments
+ */
+@Component
+public class ArticleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleIndex.class);
+
+    // configurable defaults (can be moved to application.properties later)
+    private static final int FLUSH_THRESHOLD_DOCS = 64;
+    private static final long FLUSH_DELAY_SECONDS = 5;
+    private static final int MAX_SEGMENTS = 8;
+    private static final int MERGE_FACTOR = 4;
+    private static final int SNIPPET_CONTEXT_CHARS = 60;
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Path dir;
+    private final ScheduledThreadPoolExecutor maintenance = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "article-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Object lock = new Object();
+    // url -> currently visible version; older docs with the same url are skipped and merged away
+    private final Map<String, DocRef> live = new ConcurrentHashMap<>();
+
+    // at most one immediate and one delayed flush task are queued at any time
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final AtomicBoolean delayedFlushQueued = new AtomicBoolean();
+
+    // guarded by lock
+    private final List<IndexedDocument> pending = new ArrayList<>();
+    private IndexSegment pendingSegment; // in-memory segment over pending, built lazily for search()
+    private List<IndexSegment> segments = List.of();
+    private int nextDocId;
+    private long nextGeneration;
+    private long liveLength;
+
+    public ArticleIndex(@Value("${reading.index.dir:index}") String dir) {
+        this.dir = Path.of(dir);
+        load();
+    }
+
+    private static final class DocRef {
+        final int docId;
+        final int length;
+
+        DocRef(int docId, int length) {
+            this.docId = docId;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Add (or replace, keyed by URL) an analyzed article. Cheap: the actual segment write happens
+     * on the background thread.
+     */
+    public void add(ArticleResult result) {
+        if (result == null || result.getUrl() == null || result.getText() == null || result.getText().isBlank()) {
+            return;
+        }
+
+        synchronized (lock) {
+            IndexedDocument doc = IndexedDocument.from(nextDocId++, result);
+            track(doc);
+            pending.add(doc);
+            pendingSegment = null;
+
+            if (pending.size() >= FLUSH_THRESHOLD_DOCS) {
+                if (flushQueued.compareAndSet(false, true)) maintenance.execute(this::flushAndMerge);
+            } else if (delayedFlushQueued.compareAndSet(false, true)) {
+                maintenance.schedule(this::flushAndMerge, FLUSH_DELAY_SECONDS, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * BM25-ranked search.
+     *
+     * @param query free text, tokenized the same way as indexed fields
+     * @param limit max number of hits
+     */
+    public List<SearchHit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (IndexTokenizer.Token t : IndexTokenizer.tokenize(query)) terms.add(t.term);
+        if (terms.isEmpty() || limit <= 0) return List.of();
+
+        List<IndexSegment> snapshot;
+        long docCount;
+        long totalLength;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(segments);
+            if (!pending.isEmpty()) {
+                // unflushed docs get an in-memory segment, reused until the next add() or flush
+                if (pendingSegment == null) pendingSegment = IndexSegment.build(-1, new long[0], new ArrayList<>(pending));
+                snapshot.add(pendingSegment);
+            }
+            docCount = live.size();
+            totalLength = liveLength;
+        }
+        if (docCount == 0) return List.of();
+        double avgLength = Math.max(1.0, (double) totalLength / docCount);
+
+        Map<Integer, Double> scores = new HashMap<>();
+        Map<Integer, IndexedDocument> docs = new HashMap<>();
+
+        for (String term : terms) {
+            int df = 0;
+            for (IndexSegment segment : snapshot) {
+                IndexSegment.TermPostings p = segment.postings(term);
+                if (p != null) df += p.docFrequency;
+            }
+            if (df == 0) continue;
+            // df also counts replaced versions that were not merged away yet
+            df = (int) Math.min(df, docCount);
+            double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+
+            for (IndexSegment segment : snapshot) {
+                IndexSegment.TermPostings p = segment.postings(term);
+                if (p == null) continue;
+                PostingsCodec.decode(p.data, (docId, tf) -> {
+                    IndexedDocument doc = segment.document(docId);
+                    if (doc == null || !isLive(doc)) return;
+                    double norm = tf + K1 * (1 - B + B * doc.length / avgLength);
+                    scores.merge(docId, idf * tf * (K1 + 1) / norm, Double::sum);
+                    docs.putIfAbsent(docId, doc);
+                });
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .limit(limit)
+                .map(e -> {
+                    IndexedDocument doc = docs.get(e.getKey());
+                    return new SearchHit(doc.url, doc.title(), e.getValue(), snippets(doc, terms));
+                })
+                .toList();
+    }
+
+    // First matching term per field, with a bit of surrounding text
+    private List<SearchSnippet> snippets(IndexedDocument doc, Set<String> terms) {
+        List<SearchSnippet> result = new ArrayList<>();
+        for (int f = 0; f < doc.fields.length; f++) {
+            String text = doc.fields[f];
+            for (IndexTokenizer.Token token : IndexTokenizer.tokenize(text)) {
+                if (!terms.contains(token.term)) continue;
+                int from = Math.max(0, token.start - SNIPPET_CONTEXT_CHARS);
+                int to = Math.min(text.length(), token.end + SNIPPET_CONTEXT_CHARS);
+                result.add(new SearchSnippet(IndexedDocument.FIELD_NAMES[f], token.start, token.end,
+                        from, text.substring(from, to)));
+                break;
+            }
+        }
+        return result;
+    }
+
+    private boolean isLive(IndexedDocument doc) {
+        DocRef ref = live.get(doc.url);
+        return ref != null && ref.docId == doc.docId;
+    }
+
+    // caller holds lock (or is the constructor)
+    private void track(IndexedDocument doc) {
+        DocRef previous = live.get(doc.url);
+        if (previous != null && previous.docId > doc.docId) return;
+        if (previous != null) liveLength -= previous.length;
+        live.put(doc.url, new DocRef(doc.docId, doc.length));
+        liveLength += doc.length;
+    }
+
+    private void flushAndMerge() {
+        try {
+            flush();
+            maybeMerge();
+        } catch (Exception e) {
+            log.warn("Index maintenance failed: {}", e.toString());
+        }
+    }
+
+    private void flush() throws IOException {
+        List<IndexedDocument> batch;
+        long generation;
+        flushQueued.set(false);
+        delayedFlushQueued.set(false);
+        synchronized (lock) {
+            if (pending.isEmpty()) return;
+            batch = new ArrayList<>(pending);
+            generation = nextGeneration++;
+        }
+
+        IndexSegment segment = IndexSegment.build(generation, new long[0], batch);
+        segment.write(dir);
+
+        synchronized (lock) {
+            List<IndexSegment> updated = new ArrayList<>(segments);
+            updated.add(segment);
+            segments = List.copyOf(updated);
+            // only this thread removes from pending, so the first batch.size() entries are ours
+            pending.subList(0, batch.size()).clear();
+            pendingSegment = null;
+        }
+        log.debug("Flushed index segment {} with {} docs", generation, batch.size());
+    }
+
+    private void maybeMerge() throws IOException {
+        List<IndexSegment> toMerge;
+        long generation;
+        synchronized (lock) {
+            if (segments.size() <= MAX_SEGMENTS) return;
+            toMerge = segments.stream()
+                    .sorted(Comparator.comparingInt(IndexSegment::size))
+                    .limit(MERGE_FACTOR)
+                    .toList();
+            generation = nextGeneration++;
+        }
+
+        List<IndexedDocument> survivors = new ArrayList<>();
+        long[] mergedFrom = new long[toMerge.size()];
+        for (int i = 0; i < toMerge.size(); i++) {
+            IndexSegment s = toMerge.get(i);
+            mergedFrom[i] = s.generation;
+            for (IndexedDocument doc : s.documents()) {
+                if (isLive(doc)) survivors.add(doc);
+            }
+        }
+
+        IndexSegment merged = IndexSegment.build(generation, mergedFrom, survivors);
+        merged.write(dir);
+
+        synchronized (lock) {
+            List<IndexSegment> updated = new ArrayList<>(segments);
+            updated.removeAll(toMerge);
+            updated.add(merged);
+            segments = List.copyOf(updated);
+        }
+        for (IndexSegment s : toMerge) {
+            Files.deleteIfExists(dir.resolve(IndexSegment.fileName(s.generation)));
+        }
+        log.info("Merged {} index segments into {} ({} live docs)", toMerge.size(), generation, survivors.size());
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(dir);
+            List<IndexSegment> loaded = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + IndexSegment.FILE_SUFFIX)) {
+                for (Path file : files) {
+                    try {
+                        loaded.add(IndexSegment.read(file));
+                    } catch (IOException e) {
+                        log.warn("Skipping unreadable index segment {}: {}", file, e.toString());
+                    }
+                }
+            }
+
+            // segments already folded into a merged one (crash before delete)
+            Set<Long> superseded = new HashSet<>();
+            for (IndexSegment s : loaded) {
+                for (long g : s.mergedFrom) superseded.add(g);
+            }
+            for (IndexSegment s : loaded) {
+                if (superseded.contains(s.generation)) {
+                    Files.deleteIfExists(dir.resolve(IndexSegment.fileName(s.generation)));
+                }
+            }
+            loaded.removeIf(s -> superseded.contains(s.generation));
+            loaded.sort(Comparator.comparingLong(s -> s.generation));
+
+            for (IndexSegment s : loaded) {
+                nextGeneration = Math.max(nextGeneration, s.generation + 1);
+                for (IndexedDocument doc : s.documents()) {
+                    nextDocId = Math.max(nextDocId, doc.docId + 1);
+                    track(doc);
+                }
+            }
+            segments = List.copyOf(loaded);
+            log.info("Loaded article index from {}: {} segments, {} docs", dir.toAbsolutePath(), loaded.size(), live.size());
+        } catch (IOException e) {
+            log.warn("Could not open article index at {}: {}", dir.toAbsolutePath(), e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        // a queued delayed flush would only hold up shutdown: the final flush below covers it
+        maintenance.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(10, TimeUnit.SECONDS);
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Final index flush failed: {}", e.toString());
+        }
+    }
+}
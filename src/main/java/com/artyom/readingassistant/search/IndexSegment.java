@@ -0,0 +1,223 @@
+package com.artyom.readingassistant.search;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Immutable slice of the index: a set of stored documents and the compressed posting lists
+ * for every term they contain.
+ *
+ * On-disk layout (big-endian, CRC32 of everything before the trailer at the end):
+ * <pre>
+ *   magic, version, generation, mergedFrom[], docs[], terms[] (sorted), crc
+ * </pre>
+ * Segments are written to a temp file and atomically renamed, so a crash never leaves
+ * a half-written segment behind. {@code mergedFrom} lists the generations a merged segment
+ * replaces; if the process dies before those were deleted they are ignored on the next load.
+ */
+final class IndexSegment {
+
+    private static final int MAGIC = 0x52414958; // "RAIX"
+    private static final int VERSION = 1;
+    private static final String FILE_PREFIX = "segment_";
+    static final String FILE_SUFFIX = ".seg";
+
+    final long generation;
+    final long[] mergedFrom;
+    private final IndexedDocument[] docs; // sorted by docId
+    private final Map<String, TermPostings> terms;
+
+    private IndexSegment(long generation, long[] mergedFrom, IndexedDocument[] docs, Map<String, TermPostings> terms) {
+        this.generation = generation;
+        this.mergedFrom = mergedFrom;
+        this.docs = docs;
+        this.terms = terms;
+    }
+
+    static final class TermPostings {
+        final int docFrequency;
+        final byte[] data;
+
+        TermPostings(int docFrequency, byte[] data) {
+            this.docFrequency = docFrequency;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Build a segment from documents; they are sorted by docId here so callers can pass any order.
+     */
+    static IndexSegment build(long generation, long[] mergedFrom, List<IndexedDocument> documents) {
+        IndexedDocument[] docs = documents.toArray(new IndexedDocument[0]);
+        Arrays.sort(docs, Comparator.comparingInt(d -> d.docId));
+
+        Map<String, PostingsCodec.Writer> writers = new HashMap<>();
+        for (IndexedDocument doc : docs) {
+            Map<String, Integer> tf = new HashMap<>();
+            for (String field : doc.fields) {
+                for (IndexTokenizer.Token token : IndexTokenizer.tokenize(field)) {
+                    tf.merge(token.term, 1, Integer::sum);
+                }
+            }
+            tf.forEach((term, count) -> writers.computeIfAbsent(term, t -> new PostingsCodec.Writer()).add(doc.docId, count));
+        }
+
+        Map<String, TermPostings> terms = new HashMap<>(writers.size() * 2);
+        writers.forEach((term, w) -> terms.put(term, new TermPostings(w.docFrequency(), w.toByteArray())));
+        return new IndexSegment(generation, mergedFrom, docs, terms);
+    }
+
+    int size() {
+        return docs.length;
+    }
+
+    List<IndexedDocument> documents() {
+        return Arrays.asList(docs);
+    }
+
+    TermPostings postings(String term) {
+        return terms.get(term);
+    }
+
+    IndexedDocument document(int docId) {
+        int lo = 0;
+        int hi = docs.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int id = docs[mid].docId;
+            if (id < docId) lo = mid + 1;
+            else if (id > docId) hi = mid - 1;
+            else return docs[mid];
+        }
+        return null;
+    }
+
+    static String fileName(long generation) {
+        return String.format("%s%012d%s", FILE_PREFIX, generation, FILE_SUFFIX);
+    }
+
+    Path write(Path dir) throws IOException {
+        Path target = dir.resolve(fileName(generation));
+        Path tmp = dir.resolve(fileName(generation) + ".tmp");
+
+        boolean written = false;
+        try {
+            writeFile(tmp);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            written = true;
+        } finally {
+            // a failed write must not leave a half-written file behind
+            if (!written) deleteQuietly(tmp);
+        }
+        return target;
+    }
+
+    private void writeFile(Path tmp) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fileOut = new FileOutputStream(tmp.toFile());
+             CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOut, 64 * 1024), crc);
+             DataOutputStream out = new DataOutputStream(checked)) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(generation);
+            out.writeInt(mergedFrom.length);
+            for (long g : mergedFrom) out.writeLong(g);
+
+            out.writeInt(docs.length);
+            for (IndexedDocument doc : docs) {
+                out.writeInt(doc.docId);
+                out.writeInt(doc.length);
+                writeString(out, doc.url);
+                for (String field : doc.fields) writeString(out, field);
+            }
+
+            List<String> sortedTerms = new ArrayList<>(terms.keySet());
+            Collections.sort(sortedTerms);
+            out.writeInt(sortedTerms.size());
+            for (String term : sortedTerms) {
+                TermPostings p = terms.get(term);
+                writeString(out, term);
+                out.writeInt(p.docFrequency);
+                out.writeInt(p.data.length);
+                out.write(p.data);
+            }
+
+            out.flush();
+            // trailer is not part of the checksum
+            new DataOutputStream(fileOut).writeLong(crc.getValue());
+            fileOut.getFD().sync();
+        }
+    }
+
+    static IndexSegment read(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < 8) throw new IOException("segment too short: " + file);
+
+        CRC32 crc = new CRC32();
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new ByteArrayInputStream(bytes, 0, bytes.length - 8), crc);
+             DataInputStream in = new DataInputStream(checked)) {
+
+            if (in.readInt() != MAGIC) throw new IOException("not a segment file: " + file);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("unsupported segment version " + version + ": " + file);
+
+            long generation = in.readLong();
+            long[] mergedFrom = new long[in.readInt()];
+            for (int i = 0; i < mergedFrom.length; i++) mergedFrom[i] = in.readLong();
+
+            IndexedDocument[] docs = new IndexedDocument[in.readInt()];
+            for (int i = 0; i < docs.length; i++) {
+                int docId = in.readInt();
+                int length = in.readInt();
+                String url = readString(in);
+                String[] fields = new String[IndexedDocument.FIELD_NAMES.length];
+                for (int f = 0; f < fields.length; f++) fields[f] = readString(in);
+                docs[i] = new IndexedDocument(docId, url, fields, length);
+            }
+
+            int termCount = in.readInt();
+            Map<String, TermPostings> terms = new HashMap<>(termCount * 2);
+            for (int i = 0; i < termCount; i++) {
+                String term = readString(in);
+                int df = in.readInt();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                terms.put(term, new TermPostings(df, data));
+            }
+
+            long expected = new DataInputStream(new ByteArrayInputStream(bytes, bytes.length - 8, 8)).readLong();
+            if (crc.getValue() != expected) throw new IOException("checksum mismatch: " + file);
+
+            return new IndexSegment(generation, mergedFrom, docs, terms);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // the write failure is the one to report
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] b = new byte[in.readInt()];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
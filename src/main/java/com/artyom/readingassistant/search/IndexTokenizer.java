@@ -0,0 +1,62 @@
+package com.artyom.readingassistant.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-cased letter/digit tokens and remembers where each token came from,
+ * so the same tokenizer serves both indexing and snippet highlighting.
+ */
+public final class IndexTokenizer {
+
+    // very long "words" are almost always garbage (base64, minified code)
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private IndexTokenizer() {
+    }
+
+    public static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        int i = 0;
+        int len = text.length();
+        while (i < len) {
+            int cp = text.codePointAt(i);
+            if (!Character.isLetterOrDigit(cp)) {
+                i += Character.charCount(cp);
+                continue;
+            }
+            int start = i;
+            while (i < len) {
+                cp = text.codePointAt(i);
+                if (!Character.isLetterOrDigit(cp)) break;
+                i += Character.charCount(cp);
+            }
+            if (i - start <= MAX_TOKEN_LENGTH) {
+                tokens.add(new Token(text.substring(start, i).toLowerCase(Locale.ROOT), start, i));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * A single term together with its [start, end) char offsets in the source text.
+     */
+    public static final class Token {
+        final String term;
+        final int start;
+        final int end;
+
+        Token(String term, int start, int end) {
+            this.term = term;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.artyom.readingassistant.search;
+
+import com.artyom.readingassistant.model.ArticleResult;
+
+import java.util.List;
+
+/**
+ * Stored form of an analyzed article inside the index: the searchable fields as plain strings
+ * (lists are joined line by line) plus the token count used for BM25 length normalization.
+ */
+final class IndexedDocument {
+
+    static final String[] FIELD_NAMES = {"title", "summary", "keyIdeas", "actionItems"};
+
+    final int docId;
+    final String url;
+    final String[] fields;
+    final int length;
+
+    IndexedDocument(int docId, String url, String[] fields, int length) {
+        this.docId = docId;
+        this.url = url;
+        this.fields = fields;
+        this.length = length;
+    }
+
+    static IndexedDocument from(int docId, ArticleResult result) {
+        String[] fields = {
+                result.getTitle() == null ? "" : result.getTitle(),
+                join(result.getSummary()),
+                join(result.getKeyIdeas()),
+                join(result.getActionItems())
+        };
+        int length = 0;
+        for (String field : fields) {
+            length += IndexTokenizer.tokenize(field).size();
+        }
+        return new IndexedDocument(docId, result.getUrl(), fields, length);
+    }
+
+    String title() {
+        return fields[0];
+    }
+
+    private static String join(List<String> parts) {
+        return parts == null || parts.isEmpty() ? "" : String.join("\n", parts);
+    }
+}
@@ -0,0 +1,85 @@
+package com.artyom.readingassistant.search;
+
+import java.util.Arrays;
+
+/**
+ * Compressed posting lists: every entry is (docId delta, term frequency), both written as
+ * LEB128-style varints. Doc ids are strictly increasing inside a list, so deltas stay small
+ * and most entries fit into two bytes.
+ */
+final class PostingsCodec {
+
+    private PostingsCodec() {
+    }
+
+    @FunctionalInterface
+    interface PostingConsumer {
+        void accept(int docId, int termFrequency);
+    }
+
+    static void decode(byte[] data, PostingConsumer consumer) {
+        int pos = 0;
+        int docId = 0;
+        while (pos < data.length) {
+            // inline varint decoding twice per entry: delta, then tf
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            int tf = 0;
+            shift = 0;
+            do {
+                b = data[pos++];
+                tf |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            docId += delta;
+            consumer.accept(docId, tf);
+        }
+    }
+
+    /**
+     * Append-only encoder for a single term. Doc ids must be added in ascending order.
+     */
+    static final class Writer {
+        private byte[] buf = new byte[16];
+        private int size;
+        private int lastDocId;
+        private int docFrequency;
+
+        void add(int docId, int termFrequency) {
+            if (docFrequency > 0 && docId <= lastDocId) {
+                throw new IllegalArgumentException("doc ids must be ascending: " + docId + " after " + lastDocId);
+            }
+            writeVarint(docId - lastDocId);
+            writeVarint(termFrequency);
+            lastDocId = docId;
+            docFrequency++;
+        }
+
+        int docFrequency() {
+            return docFrequency;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void writeVarint(int value) {
+            if (size + 5 > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+    }
+}
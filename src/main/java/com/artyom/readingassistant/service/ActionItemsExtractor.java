@@ -22,17 +22,28 @@ public class ActionItemsExtractor {
         if (text == null || text.isBlank()) return results;
 
         // Разбиваем по параграфам/строкам — это простая и устойчивая стратегия.
-        String[] lines = text.split("\\r?\\n");
-        for (String rawLine : lines) {
-            String line = rawLine.trim();
-            if (line.isEmpty()) continue;
+        // Идём по строкам через indexOf, без промежуточного массива всех строк.
+        int start = 0;
+        while (start <= text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) end = text.length();
 
-            Matcher matcher = ACTION_PATTERN_PER_SENTENCE.matcher(line);
-            if (matcher.find()) {
+            String line = text.substring(start, end).trim();
+            if (isActionItem(line)) {
                 // можно дополнительно нормализовать line, убрав лишние пробелы
                 results.add(new ActionItem(line));
             }
+            start = end + 1;
         }
         return results;
     }
+
+    /**
+     * Проверка одной уже обрезанной строки.
+     */
+    private boolean isActionItem(String line) {
+        if (line.isEmpty()) return false;
+        Matcher matcher = ACTION_PATTERN_PER_SENTENCE.matcher(line);
+        return matcher.find();
+    }
 }
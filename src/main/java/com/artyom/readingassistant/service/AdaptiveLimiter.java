@@ -0,0 +1,93 @@
+package com.artyom.readingassistant.service;
+
+/**
+ * Adaptive concurrency limit based on the latency gradient (the idea of Netflix' Gradient2).
+ *
+ * - a long-term RTT baseline is tracked as a slow moving average
+ * - each sample compares the baseline with the sample RTT: if latency grows, the gradient
+ *   drops below 1 and the limit shrinks; if latency is at baseline, the limit grows by sqrt(limit)
+ * - samples taken while less than half of the limit was in use carry no signal and are ignored
+ *   for the limit (the limit must not grow just because traffic is low)
+ *
+ * Thread-safe; all state is guarded by this.
+ */
+public final class AdaptiveLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final int LONG_WINDOW = 600;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private int inFlight;
+    private double longRttNanos;
+    private long rejected;
+
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Release a slot acquired with {@link #tryAcquire()} and feed the observed latency.
+     */
+    public synchronized void release(long rttNanos) {
+        int inFlightAtSample = inFlight;
+        inFlight--;
+        if (rttNanos <= 0) return;
+
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        }
+        // after a sustained latency drop, let the baseline catch up faster
+        if (longRttNanos > 2.0 * rttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        if (inFlightAtSample < limit / 2) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    /**
+     * Hint for clients: roughly one typical request duration, at least a second.
+     */
+    public synchronized long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(longRttNanos / 1_000_000_000.0));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+}
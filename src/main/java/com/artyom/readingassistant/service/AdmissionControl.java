@@ -0,0 +1,120 @@
+package com.artyom.readingassistant.service;
+
+import com.artyom.readingassistant.exception.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Load shedding for the pipeline: separate adaptive limits for the network-bound fetch
+ * and the CPU-bound analysis. Work over the limit fails fast with OverloadedException
+ * instead of queueing behind slow origins.
+ *
+ * Exposed as metrics reading.admission.limit / .inflight / .rejected, tagged with the stage
+ * (see /actuator/metrics).
+ */
+@Component
+public class AdmissionControl {
+
+    public enum Stage { FETCH, ANALYSIS }
+
+    private static final int CPUS = Runtime.getRuntime().availableProcessors();
+
+    private final Map<Stage, AdaptiveLimiter> limiters = new EnumMap<>(Stage.class);
+    private final Map<Stage, Counter> rejections = new EnumMap<>(Stage.class);
+    private final LongSupplier nanoClock;
+
+    public AdmissionControl(MeterRegistry registry) {
+        this(registry, System::nanoTime);
+    }
+
+    // for tests: a fake clock makes the measured latencies exact
+    AdmissionControl(MeterRegistry registry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        // fetches mostly wait on the network, so they get a much higher ceiling
+        limiters.put(Stage.FETCH, new AdaptiveLimiter("fetch", 20, 2, 200));
+        limiters.put(Stage.ANALYSIS, new AdaptiveLimiter("analysis", CPUS * 2, 1, CPUS * 8));
+
+        for (Stage stage : Stage.values()) {
+            AdaptiveLimiter limiter = limiters.get(stage);
+            Tags tags = Tags.of("stage", stage.name().toLowerCase(Locale.ROOT));
+            registry.gauge("reading.admission.limit", tags, limiter, AdaptiveLimiter::getLimit);
+            registry.gauge("reading.admission.inflight", tags, limiter, AdaptiveLimiter::getInFlight);
+            rejections.put(stage, registry.counter("reading.admission.rejected",
+                    "stage", stage.name().toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    /**
+     * Run work within the limit of the given stage.
+     *
+     * @throws OverloadedException if the stage is at its limit; nothing is run then
+     */
+    public <T> T run(Stage stage, Supplier<T> work) {
+        return reserve(stage).run(work);
+    }
+
+    /**
+     * Take a slot of the given stage now and run the work in it later, or give it back unused.
+     * The slot counts against the limit from now on, so hold it only while about to do that stage's work;
+     * its latency is measured from {@link Reservation#run}.
+     *
+     * @throws OverloadedException if the stage is at its limit
+     */
+    public Reservation reserve(Stage stage) {
+        AdaptiveLimiter limiter = limiters.get(stage);
+        if (!limiter.tryAcquire()) {
+            rejections.get(stage).increment();
+            throw new OverloadedException(limiter.getName() + " is at its concurrency limit of "
+                    + limiter.getLimit(), limiter.retryAfterSeconds());
+        }
+        return new Reservation(limiter, nanoClock);
+    }
+
+    AdaptiveLimiter limiter(Stage stage) {
+        return limiters.get(stage);
+    }
+
+    /**
+     * A slot taken by {@link #reserve(Stage)}. Must be either run once or cancelled;
+     * cancel() after run() does nothing, so it can go into a finally block.
+     */
+    public static final class Reservation {
+
+        private final AdaptiveLimiter limiter;
+        private final LongSupplier nanoClock;
+        private boolean released;
+
+        private Reservation(AdaptiveLimiter limiter, LongSupplier nanoClock) {
+            this.limiter = limiter;
+            this.nanoClock = nanoClock;
+        }
+
+        public <T> T run(Supplier<T> work) {
+            if (released) throw new IllegalStateException("reservation already used");
+            long start = nanoClock.getAsLong();
+            try {
+                return work.get();
+            } finally {
+                released = true;
+                limiter.release(nanoClock.getAsLong() - start);
+            }
+        }
+
+        /**
+         * Give the slot back without a latency sample.
+         */
+        public void cancel() {
+            if (released) return;
+            released = true;
+            limiter.release(0);
+        }
+    }
+}
@@ -1,26 +1,46 @@
 package com.artyom.readingassistant.service;
 
 import com.artyom.readingassistant.model.ArticleResult;
-import org.jsoup.Connection;
+import com.artyom.readingassistant.model.SectionHeading;
+import jakarta.annotation.PreDestroy;
 import org.jsoup.Jsoup;
+import org.jsoup.UnsupportedMimeTypeException;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.time.Duration;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Fetches an article from the given URL and extracts a clean textual representation.
  *
  * Responsibilities:
- *  - Download the page (with a small timeout)
- *  - Try to locate the main article element (several heuristics)
+ *  - Download the page with a per-host adaptive timeout; for hosts with known latency,
+ *    send a hedged duplicate request once the first one is slower than the host's p95;
+ *    the losing request is aborted (HttpClient exchange cancelled, connection dropped);
+ *    a response that is not text/html or application/xhtml+xml is rejected before its body is read
+ *  - Follow pagination (?page=N, /page/N, rel="next"): remaining pages are fetched concurrently,
+ *    a few per host at a time, and their text is appended in page order
+ *  - Try to locate the main article element (several heuristics); the selector that worked
+ *    for a host is remembered (ExtractionRuleCache) and tried first on its next pages
+ *  - Drop paragraphs the host repeats on most of its pages: banners, footers (BoilerplateFilter)
  *  - Fallback to body text if article element not found
  *  - Return ArticleResult containing URL, title and extracted text
  *
@@ -33,8 +53,75 @@ public class ArticleFetcher {
     private static final Logger log = LoggerFactory.getLogger(ArticleFetcher.class);
 
     // configurable defaults (can be moved to application.properties later)
-    private static final int TIMEOUT_MILLIS = (int) Duration.ofSeconds(10).toMillis();
+    private static final int TIMEOUT_MILLIS = (int) Duration.ofSeconds(10).toMillis(); // also the upper bound
+    private static final int MIN_TIMEOUT_MILLIS = (int) Duration.ofSeconds(1).toMillis();
+    private static final int TIMEOUT_P99_MULTIPLIER = 3;
+    private static final double HEDGE_PERCENTILE = 0.95;
+    private static final double HEDGE_BUDGET_RATIO = 0.1; // at most ~10% extra requests
+    private static final int MAX_FETCH_THREADS = 64;
     private static final String USER_AGENT = "ReadingAssistantBot/1.0 (+https://example.com)";
+    private static final int MAX_BODY_BYTES = 2 * 1024 * 1024; // the rest of a larger page is not read
+    private static final int MAX_PAGES = 10;
+    private static final int MAX_PAGE_FETCHES_PER_HOST = 4;
+    private static final int MAX_PAGE_SLOT_HOSTS = 1000;
+    private static final int MIN_LEARNED_TEXT_CHARS = 200; // a learned rule must find at least this much
+    private static final double MIN_REPROBE_RATIO = 0.5; // ...and at re-probe at least this share of the probe's text
+
+    // main content heuristics in order of preference; only these are ever learned,
+    // the body fallback is not (it "works" on every page and would never miss)
+    private static final List<String> CONTENT_SELECTORS = List.of(
+            "article",
+            "main",
+            "div[class*=\"article\"]",
+            "div[class*=\"post\"]",
+            "div[id*=\"article\"]",
+            "div[id*=\"post\"]",
+            "div[class*=\"content\"]",
+            "section[class*=\"content\"]"
+    );
+    private static final Set<String> HEADING_TAGS = Set.of("h1", "h2", "h3");
+
+    private final HostLatencyTracker latencies;
+    private final ExtractionRuleCache extractionRules;
+    private final BoilerplateFilter boilerplate;
+    private final RetryBudget hedgeBudget;
+    private final ThreadPoolExecutor fetchExecutor;
+    private final HttpClient httpClient;
+
+    // host -> permits for concurrent page downloads of paginated articles (LRU). A host with permits
+    // out is never evicted: a fresh semaphore for it would allow another full set of downloads
+    private final Map<String, Semaphore> pageSlots = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Semaphore> eldest) {
+            return size() > MAX_PAGE_SLOT_HOSTS
+                    && eldest.getValue().availablePermits() == MAX_PAGE_FETCHES_PER_HOST;
+        }
+    };
+
+    public ArticleFetcher(HostLatencyTracker latencies, ExtractionRuleCache extractionRules,
+                          BoilerplateFilter boilerplate) {
+        this(latencies, extractionRules, boilerplate, new RetryBudget(HEDGE_BUDGET_RATIO, 10));
+    }
+
+    ArticleFetcher(HostLatencyTracker latencies, ExtractionRuleCache extractionRules,
+                   BoilerplateFilter boilerplate, RetryBudget hedgeBudget) {
+        this.latencies = latencies;
+        this.extractionRules = extractionRules;
+        this.boilerplate = boilerplate;
+        this.hedgeBudget = hedgeBudget;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.fetchExecutor = new ThreadPoolExecutor(0, MAX_FETCH_THREADS, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "article-fetch-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.ALWAYS)
+                .connectTimeout(Duration.ofMillis(TIMEOUT_MILLIS)) // upper bound; each request has its host's timeout
+                .build();
+    }
 
     /**
      * Fetch article and extract main textual content.
@@ -54,32 +141,294 @@ public class ArticleFetcher {
 
             log.info("Fetching URL: {}", url);
 
-            Connection connection = Jsoup.connect(url)
-                    .userAgent(USER_AGENT)
-                    .timeout(TIMEOUT_MILLIS)
-                    .followRedirects(true)
-                    .ignoreHttpErrors(true);
+            Document doc = downloadHedged(url);
+
+            return extract(url, doc, fetchMorePages(url, doc));
+        } catch (Exception e) {
+            // the caller decides what an interrupted fetch means, so keep the flag for it
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            log.warn("Failed to fetch or parse URL {}: {}", url, e.toString());
+            // On fetch error, return empty ArticleResult but keep URL to allow caller to log
+            return new ArticleResult(url, "", "");
+        }
+    }
+
+    /**
+     * Extraction part of {@link #fetch(String)} for an already parsed page
+     * (also used to replay saved pages offline).
+     *
+     * @param url URL the page was served from
+     * @param doc parsed page
+     * @return ArticleResult with url, title and cleaned text
+     */
+    public ArticleResult extract(String url, Document doc) {
+        return extract(url, doc, List.of());
+    }
+
+    private ArticleResult extract(String url, Document doc, List<Document> morePages) {
+        // Title extraction: prefer <title>, then og:title meta
+        String title = extractTitle(doc).orElse("(no title)");
 
-            Document doc = connection.get();
 
-            // Title extraction: prefer <title>, then og:title meta
-            String title = extractTitle(doc).orElse("(no title)");
+        // Try the host's learned selector, then several heuristics to find the main article node
+        String host = safeHostOf(url);
+        List<SectionHeading> sections = new ArrayList<>();
+        String text = extractMainText(doc, host, sections);
+        if (!morePages.isEmpty()) {
+            text = mergePages(text, morePages, host, sections);
+        }
 
+        // Site chrome repeated across the host's pages never reaches the analyzers
+        text = boilerplate.filter(host, url, text);
 
-            // Try several heuristics to find the main article node
-            String text = extractMainText(doc);
 
+        // Trim and normalize whitespace
+        text = normalizeText(text);
 
-            // Trim and normalize whitespace
-            text = normalizeText(text);
 
+        ArticleResult result = new ArticleResult(url, title, text);
+        result.setSectionHeadings(sections);
+        return result;
+    }
 
-            return new ArticleResult(url, title, text);
-        } catch (Exception e) {
-            log.warn("Failed to fetch or parse URL {}: {}", url, e.toString());
-            // On fetch error, return empty ArticleResult but keep URL to allow caller to log
-            return new ArticleResult(url, "", "");
+    // Pages after the first one, in order. Numbered pages (linked from the first page, gaps in the
+    // links filled in from their URL pattern) are downloaded concurrently; a rel="next" chain that goes beyond them is followed one page at a time.
+    // A page that fails is skipped, the article is still returned.
+    private List<Document> fetchMorePages(String url, Document first) {
+        SortedMap<Integer, String> pages = PaginationLinks.find(url, first, MAX_PAGES);
+        if (pages.isEmpty()) return List.of();
+
+        String host = hostOf(url);
+        Semaphore slots;
+        synchronized (pageSlots) {
+            slots = pageSlots.computeIfAbsent(host, h -> new Semaphore(MAX_PAGE_FETCHES_PER_HOST));
+        }
+        log.info("Fetching {} more pages of {}", pages.size(), url);
+
+        // the permit is taken here, before submitting: waiting for the host happens on this thread,
+        // not on a pool thread that other requests could use meanwhile
+        List<Future<Document>> futures = new ArrayList<>();
+        for (String pageUrl : pages.values()) {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // collected below: whatever was submitted is cancelled
+                break;
+            }
+            Callable<Document> task = () -> {
+                try {
+                    return download(pageUrl, host);
+                } finally {
+                    slots.release();
+                }
+            };
+            try {
+                futures.add(fetchExecutor.submit(task));
+            } catch (RejectedExecutionException e) {
+                FutureTask<Document> inline = new FutureTask<>(task); // pool saturated, no concurrency
+                inline.run();
+                futures.add(inline);
+            }
+        }
+
+        Set<String> seen = new HashSet<>(pages.values());
+        seen.add(url);
+        List<Document> docs = new ArrayList<>();
+        try {
+            for (Future<Document> f : futures) {
+                try {
+                    docs.add(f.get());
+                } catch (ExecutionException e) {
+                    log.warn("Failed to fetch a page of {}: {}", url, e.getCause().toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            return docs;
+        }
+
+        // rel="next" beyond the numbered links (or a chain with no numbers at all)
+        Document last = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+        int count = 1 + pages.size();
+        while (last != null && count < MAX_PAGES) {
+            String next = PaginationLinks.nextLink(last);
+            if (next == null || !seen.add(next) || !PaginationLinks.sameHost(url, next)) break;
+            count++;
+            try {
+                slots.acquire();
+                try {
+                    last = download(next, host);
+                } finally {
+                    slots.release();
+                }
+                docs.add(last);
+            } catch (IOException e) {
+                log.warn("Failed to fetch page {} of {}: {}", next, url, e.toString());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return docs;
+    }
+
+    // Append the text of the following pages; paragraphs repeated from earlier pages
+    // (the page's own header, "continued from" notes) are left out
+    private String mergePages(String firstText, List<Document> morePages, String host, List<SectionHeading> sections) {
+        StringBuilder sb = new StringBuilder(firstText);
+        Set<String> seen = new HashSet<>(Paragraphs.split(firstText));
+        for (Document page : morePages) {
+            List<SectionHeading> pageSections = new ArrayList<>();
+            Set<String> added = new HashSet<>();
+            for (String paragraph : Paragraphs.split(extractMainText(page, host, pageSections))) {
+                if (!seen.add(paragraph)) continue;
+                added.add(paragraph);
+                if (sb.length() > 0) sb.append("\n\n");
+                sb.append(paragraph);
+            }
+            // only the first copy of a page's paragraph is kept, and only if no earlier page had it
+            for (SectionHeading h : pageSections) {
+                if (h.getOccurrence() == 0 && added.contains(h.getFirstParagraph())) sections.add(h);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Primary request; if the host's p95 passes without an answer (and the budget allows),
+    // a duplicate request is sent and whichever answers first wins. The other one is cancelled:
+    // its thread is interrupted, which aborts the HttpClient exchange in download().
+    private Document downloadHedged(String url) throws Exception {
+        String host = hostOf(url);
+        hedgeBudget.deposit();
+
+        long hedgeAfter = latencies.percentile(host, HEDGE_PERCENTILE);
+        if (hedgeAfter < 0) {
+            return download(url, host); // nothing known about the host yet
+        }
+
+        ExecutorCompletionService<Document> race = new ExecutorCompletionService<>(fetchExecutor);
+        List<Future<Document>> attempts = new ArrayList<>(2);
+        try {
+            try {
+                attempts.add(race.submit(() -> download(url, host)));
+            } catch (RejectedExecutionException e) {
+                return download(url, host); // pool saturated, no hedging
+            }
+
+            Future<Document> first = race.poll(hedgeAfter, TimeUnit.MILLISECONDS);
+            if (first == null && hedgeBudget.tryWithdraw()) {
+                try {
+                    attempts.add(race.submit(() -> download(url, host)));
+                    log.debug("Hedging request to {} after {} ms", host, hedgeAfter);
+                } catch (RejectedExecutionException e) {
+                    log.debug("No thread for hedged request to {}", host);
+                }
+            }
+
+            // first successful answer wins; a failure only counts if every attempt failed
+            ExecutionException lastFailure = null;
+            for (int remaining = attempts.size(); remaining > 0; remaining--) {
+                Future<Document> done = first != null ? first : race.take();
+                first = null;
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    lastFailure = e;
+                }
+            }
+            throw lastFailure.getCause() instanceof Exception ex ? ex : lastFailure;
+        } finally {
+            for (Future<Document> f : attempts) f.cancel(true);
+        }
+    }
+
+    // The whole exchange (connect, headers, body) runs under the host's adaptive timeout; the request
+    // carries it too, so the client gives up on connecting or waiting for headers just as early.
+    // Waiting on the HttpClient future keeps the download abortable: timeout or interrupt cancels
+    // the exchange, which closes the connection
+    private Document download(String url, String host) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        int timeout = timeoutFor(host);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml")
+                .timeout(Duration.ofMillis(timeout))
+                .GET()
+                .build();
+
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(request, LimitedBody.HANDLER);
+        HttpResponse<byte[]> response;
+        try {
+            response = exchange.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            // a timeout is a (censored) latency sample too, otherwise a stuck host would look fast
+            latencies.record(host, timeout);
+            throw new SocketTimeoutException("no complete response from " + host + " within " + timeout + " ms");
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HttpTimeoutException) latencies.record(host, timeout);
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException(e.getCause());
         }
+        latencies.record(host, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        // like Jsoup.connect(): PDFs, images, JSON are not articles (their body was not even read)
+        if (response.body() == null) {
+            String contentType = response.headers().firstValue("Content-Type").orElse("");
+            throw new UnsupportedMimeTypeException("not an HTML page", contentType, url);
+        }
+
+        // like Jsoup.connect().ignoreHttpErrors(true): an error page is still parsed;
+        // without a charset in the header Jsoup looks at <meta> and falls back to UTF-8
+        return Jsoup.parse(new ByteArrayInputStream(response.body()), charsetOf(response),
+                response.uri().toString());
+    }
+
+    private static String charsetOf(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        for (String param : contentType.split(";")) {
+            String p = param.trim();
+            if (!p.regionMatches(true, 0, "charset=", 0, 8)) continue;
+            String name = p.substring(8).replace("\"", "").trim();
+            try {
+                return Charset.isSupported(name) ? name : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // one timeout for the whole exchange, see download()
+    private int timeoutFor(String host) {
+        long p99 = latencies.percentile(host, 0.99);
+        if (p99 < 0) return TIMEOUT_MILLIS;
+        return (int) Math.max(MIN_TIMEOUT_MILLIS, Math.min(TIMEOUT_MILLIS, p99 * TIMEOUT_P99_MULTIPLIER));
+    }
+
+    private static String hostOf(String url) {
+        String host = URI.create(url).getHost();
+        return host == null ? "" : host.toLowerCase(Locale.ROOT);
+    }
+
+    // extract() also gets URLs from saved archives that were never validated
+    private static String safeHostOf(String url) {
+        try {
+            return url == null ? "" : hostOf(url);
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        fetchExecutor.shutdownNow();
+        httpClient.shutdownNow();
     }
 
     // Attempt to extract title using common patterns
@@ -104,55 +453,107 @@ public class ArticleFetcher {
         return Optional.empty();
     }
 
-    // Heuristics to find main article text; tries a few selectors in order of preference
-    private String extractMainText(Document doc) {
-        // 1) <article>
-        Element article = doc.selectFirst("article");
-        if (article != null && !article.text().isBlank()) {
-            return extractTextFromElement(article);
-        }
+    // Heuristics to find main article text; a selector learned for the host goes first,
+    // then the fixed selectors in order of preference. Section starts are appended to `sections`.
+    private String extractMainText(Document doc, String host, List<SectionHeading> sections) {
+        boolean learnable = !host.isEmpty();
 
-        // 2) Common main selectors: <main>, common classes
-        Element main = doc.selectFirst("main");
-        if (main != null && !main.text().isBlank()) {
-            return extractTextFromElement(main);
-        }
+        if (learnable) {
+            String learned = extractionRules.selectorFor(host);
+            if (learned != null && !CONTENT_SELECTORS.contains(learned)) {
+                extractionRules.forget(host); // e.g. "body", learned by an older version
+                learned = null;
+            }
+            if (learned != null) {
+                int sectionCount = sections.size();
+                Element el = doc.selectFirst(learned);
+                String text = el != null ? extractTextFromElement(el, sections) : "";
+                boolean matched = text.length() >= MIN_LEARNED_TEXT_CHARS;
 
-        // 3) Common article containers by class/id heuristics
-        List<String> containerSelectors = List.of(
-                "div[class*=\"article\"]",
-                "div[class*=\"post\"]",
-                "div[id*=\"article\"]",
-                "div[id*=\"post\"]",
-                "div[class*=\"content\"]",
-                "section[class*=\"content\"]"
-        );
+                // now and then the shortcut is checked against the full heuristic chain: a redesign can
+                // leave the learned element in place but move the article out of it
+                Probe probe = null;
+                List<SectionHeading> probeSections = new ArrayList<>();
+                if (matched && extractionRules.needsReprobe(host)) {
+                    probe = probe(doc, probeSections);
+                    if (probe != null && !probe.selector.equals(learned)
+                            && text.length() < probe.text.length() * MIN_REPROBE_RATIO) {
+                        matched = false;
+                    }
+                }
 
-        for (String sel : containerSelectors) {
-            Element el = doc.selectFirst(sel);
-            if (el != null && !el.text().isBlank()) {
-                return extractTextFromElement(el);
+                if (matched) {
+                    extractionRules.recordHit(host);
+                    return text;
+                }
+                sections.subList(sectionCount, sections.size()).clear();
+                extractionRules.recordMiss(host);
+                log.debug("Learned selector '{}' did not match on {}, probing all", learned, host);
+                if (probe != null) {
+                    sections.addAll(probeSections);
+                    extractionRules.learn(host, probe.selector); // no-op while the old rule is still kept
+                    return probe.text;
+                }
             }
         }
 
-        // 4) Fallback to body text
+        // 1) <article>, <main>, common article containers by class/id heuristics
+        Probe probe = probe(doc, sections);
+        if (probe != null) {
+            if (learnable && probe.text.length() >= MIN_LEARNED_TEXT_CHARS) extractionRules.learn(host, probe.selector);
+            return probe.text;
+        }
+
+        // 2) Fallback to body text
         Element body = doc.body();
         if (body != null) {
-            return extractTextFromElement(body);
+            return extractTextFromElement(body, sections);
         }
 
-        // 5) As a last resort, return empty string
+        // 3) As a last resort, return empty string
         return "";
     }
 
+    // First content selector that matches non-blank text; null if none does
+    private Probe probe(Document doc, List<SectionHeading> sections) {
+        for (String sel : CONTENT_SELECTORS) {
+            Element el = doc.selectFirst(sel);
+            if (el != null && !el.text().isBlank()) {
+                return new Probe(sel, extractTextFromElement(el, sections));
+            }
+        }
+        return null;
+    }
+
+    private static final class Probe {
+        final String selector;
+        final String text;
+
+        Probe(String selector, String text) {
+            this.selector = selector;
+            this.text = text;
+        }
+    }
+
     // Extract text from an element, optionally filtering short noisy nodes and joining paragraphs.
-    private String extractTextFromElement(Element el) {
+    // Every h1-h3 also records where its section starts: the first paragraph kept after it.
+    private String extractTextFromElement(Element el, List<SectionHeading> sections) {
         // Gather paragraphs and significant text blocks
-        List<String> paragraphs = el.select("p, h1, h2, h3, li")
-                .stream()
-                .map(Element::text)
-                .filter(s -> s != null && s.length() > 20) // filter very short lines
-                .collect(Collectors.toList());
+        List<String> paragraphs = new ArrayList<>();
+        Map<String, Integer> copies = new HashMap<>();
+        String pendingHeading = null;
+        for (Element e : el.select("p, h1, h2, h3, li")) {
+            String s = e.text();
+            if (HEADING_TAGS.contains(e.normalName()) && !s.isBlank()) pendingHeading = s;
+            if (s.length() <= 20) continue; // filter very short lines
+
+            int occurrence = copies.merge(s, 1, Integer::sum) - 1;
+            if (pendingHeading != null) {
+                sections.add(new SectionHeading(pendingHeading, s, occurrence));
+                pendingHeading = null;
+            }
+            paragraphs.add(s);
+        }
 
         if (!paragraphs.isEmpty()) {
             return String.join("\n\n", paragraphs);
@@ -162,15 +563,98 @@ public class ArticleFetcher {
         return el.text();
     }
 
-    // Normalize whitespace, remove repeated empty lines
+    // Normalize line breaks, collapse 3+ newlines into one empty line, trim.
+    // Single pass into one builder: on multi-megabyte pages every extra regex pass is another full copy.
     private String normalizeText(String raw) {
         if (raw == null) return "";
-        // replace multiple whitespace with single space, keep paragraph breaks
-        String normalized = raw
-                .replaceAll("\\r\\n", "\n")
-                .replaceAll("\\r", "\n")
-                .replaceAll("\\n{3,}", "\n\n") // collapse many newlines
-                .trim();
-        return normalized;
+
+        int from = 0;
+        int to = raw.length();
+        while (from < to && raw.charAt(from) <= ' ') from++;
+        while (to > from && raw.charAt(to - 1) <= ' ') to--;
+
+        StringBuilder sb = new StringBuilder(to - from);
+        int newlines = 0;
+        for (int i = from; i < to; i++) {
+            char c = raw.charAt(i);
+            if (c == '\r') {
+                if (i + 1 < to && raw.charAt(i + 1) == '\n') continue; // \r\n -> handled by the \n
+                c = '\n';
+            }
+            if (c == '\n') {
+                if (++newlines <= 2) sb.append(c);
+            } else {
+                newlines = 0;
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Response body collected up to MAX_BODY_BYTES; after that the subscription is cancelled
+    // and the page is parsed from what has arrived (Jsoup's maxBodySize behaviour)
+    private static final class LimitedBody implements HttpResponse.BodySubscriber<byte[]> {
+
+        // a response that is not HTML is dropped as soon as its headers are in, with a null body
+        static final HttpResponse.BodyHandler<byte[]> HANDLER = info -> new LimitedBody(isHtml(info.headers()));
+
+        private final boolean accept;
+
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private Flow.Subscription subscription;
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return result;
+        }
+
+        LimitedBody(boolean accept) {
+            this.accept = accept;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (!accept) {
+                subscription.cancel();
+                result.complete(null);
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        // no Content-Type at all is given the benefit of the doubt, as Jsoup does
+        private static boolean isHtml(HttpHeaders headers) {
+            String contentType = headers.firstValue("Content-Type").orElse("");
+            if (contentType.isBlank()) return true;
+            String mime = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+            return mime.equals("text/html") || mime.equals("application/xhtml+xml");
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            if (result.isDone()) return;
+            for (ByteBuffer item : items) {
+                int n = Math.min(item.remaining(), MAX_BODY_BYTES - body.size());
+                byte[] chunk = new byte[n];
+                item.get(chunk);
+                body.write(chunk, 0, n);
+            }
+            if (body.size() >= MAX_BODY_BYTES) {
+                subscription.cancel();
+                result.complete(body.toByteArray());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(body.toByteArray());
+        }
     }
 }
@@ -0,0 +1,123 @@
+package com.artyom.readingassistant.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Drops paragraphs that a host repeats on most of its pages (cookie banners, subscription
+ * prompts, footers) before the text reaches the analyzers.
+ *
+ * For each host we keep the paragraph hashes of its last {@value #WINDOW_PAGES} distinct pages
+ * and a count of how many of those pages contain each hash. Once enough pages are known,
+ * a paragraph found on at least {@value #BOILERPLATE_SHARE} of them is treated as boilerplate.
+ * Re-fetching the same URL does not count twice. Memory is bounded by the number of hosts,
+ * the window and the number of paragraphs remembered per page.
+ */
+@Component
+public class BoilerplateFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(BoilerplateFilter.class);
+
+    // configurable defaults (can be moved to application.properties later)
+    private static final int MAX_HOSTS = 256;
+    private static final int WINDOW_PAGES = 32;
+    private static final int MIN_PAGES = 5;
+    private static final double BOILERPLATE_SHARE = 0.6;
+    private static final int MAX_TRACKED_PARAGRAPHS = 128; // from each end of the page
+
+    private final Map<String, HostStats> hosts = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HostStats> eldest) {
+            return size() > MAX_HOSTS;
+        }
+    };
+
+    private static final class Page {
+        final String url;
+        final long[] hashes; // distinct
+
+        Page(String url, long[] hashes) {
+            this.url = url;
+            this.hashes = hashes;
+        }
+    }
+
+    private static final class HostStats {
+        final ArrayDeque<Page> pages = new ArrayDeque<>();
+        final Set<String> urls = new HashSet<>();
+        final Map<Long, Integer> counts = new HashMap<>();
+
+        void observe(String url, long[] hashes) {
+            if (!urls.add(url)) return;
+            pages.addLast(new Page(url, hashes));
+            for (long h : hashes) counts.merge(h, 1, Integer::sum);
+
+            if (pages.size() > WINDOW_PAGES) {
+                Page oldest = pages.removeFirst();
+                urls.remove(oldest.url);
+                for (long h : oldest.hashes) counts.computeIfPresent(h, (k, c) -> c == 1 ? null : c - 1);
+            }
+        }
+
+        boolean isBoilerplate(long hash) {
+            if (pages.size() < MIN_PAGES) return false;
+            return counts.getOrDefault(hash, 0) >= Math.ceil(BOILERPLATE_SHARE * pages.size());
+        }
+    }
+
+    /**
+     * Learn from this page and return its text without the host's boilerplate paragraphs
+     * (blocks separated by an empty line). If every paragraph looks like boilerplate,
+     * the text is returned unchanged.
+     */
+    public String filter(String host, String url, String text) {
+        if (host == null || host.isEmpty() || url == null || text == null || text.isEmpty()) return text;
+
+        List<String> paragraphs = Paragraphs.split(text);
+        long[] hashes = new long[paragraphs.size()];
+        for (int i = 0; i < hashes.length; i++) hashes[i] = Paragraphs.hash(paragraphs.get(i).strip());
+
+        boolean[] drop = new boolean[hashes.length];
+        int dropped = 0;
+        HostStats stats;
+        synchronized (hosts) {
+            stats = hosts.computeIfAbsent(host, h -> new HostStats());
+        }
+        synchronized (stats) {
+            stats.observe(url, tracked(hashes));
+            for (int i = 0; i < hashes.length; i++) {
+                if (stats.isBoilerplate(hashes[i])) {
+                    drop[i] = true;
+                    dropped++;
+                }
+            }
+        }
+
+        if (dropped == 0 || dropped == paragraphs.size()) return text;
+        log.debug("Dropped {} boilerplate paragraphs of {} from {}", dropped, paragraphs.size(), url);
+
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < paragraphs.size(); i++) {
+            if (drop[i]) continue;
+            if (sb.length() > 0) sb.append("\n\n");
+            sb.append(paragraphs.get(i));
+        }
+        return sb.toString();
+    }
+
+    // Distinct hashes of the first and last MAX_TRACKED_PARAGRAPHS paragraphs (that is where the
+    // site chrome lives), so one huge page cannot blow up the per-host counts
+    private static long[] tracked(long[] hashes) {
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (int i = 0; i < hashes.length; i++) {
+            if (i < MAX_TRACKED_PARAGRAPHS || i >= hashes.length - MAX_TRACKED_PARAGRAPHS) distinct.add(hashes[i]);
+        }
+        long[] result = new long[distinct.size()];
+        int i = 0;
+        for (long h : distinct) result[i++] = h;
+        return result;
+    }
+}
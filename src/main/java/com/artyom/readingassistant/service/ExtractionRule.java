@@ -0,0 +1,26 @@
+package com.artyom.readingassistant.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Learned main-content selector of one host, with its track record.
+ * Persisted as JSON by ExtractionRuleCache.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractionRule {
+
+    private String host;
+    private String selector;
+    private long hits;
+    private long misses;
+    private int consecutiveMisses;
+
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+}
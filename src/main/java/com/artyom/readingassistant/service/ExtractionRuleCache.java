@@ -0,0 +1,195 @@
+package com.artyom.readingassistant.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host memory of which selector found the main content, so ArticleFetcher can try it first
+ * instead of probing the whole heuristic chain on every page of a site it already knows.
+ *
+ * A rule is dropped after a few misses in a row or when its hit rate gets too low; the next page
+ * of that host then goes through the full chain again and teaches a new rule. Finding enough text
+ * is not proof that the rule still finds the article, so every few hits it is re-checked against
+ * the full chain (see {@link #needsReprobe}); losing that comparison counts as a miss.
+ * Rules are kept in memory (bounded, LRU) and written to a JSON file in the background.
+ */
+@Component
+public class ExtractionRuleCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionRuleCache.class);
+
+    // configurable defaults (can be moved to application.properties later)
+    private static final int MAX_HOSTS = 5000;
+    private static final int MAX_CONSECUTIVE_MISSES = 3;
+    private static final int MIN_SAMPLES_FOR_HIT_RATE = 10;
+    private static final double MIN_HIT_RATE = 0.5;
+    private static final int REPROBE_EVERY_HITS = 20;
+    private static final long SAVE_DELAY_SECONDS = 30;
+
+    private final Path file;
+    private final ObjectMapper mapper;
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "extraction-rules");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // host -> rule; access-ordered for LRU eviction, guarded by itself
+    private final Map<String, ExtractionRule> rules = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ExtractionRule> eldest) {
+            return size() > MAX_HOSTS;
+        }
+    };
+    private boolean saveScheduled;
+
+    public ExtractionRuleCache(@Value("${reading.extraction.rules-file:extraction-rules.json}") String file,
+                               ObjectMapper mapper) {
+        this.file = Path.of(file);
+        this.mapper = mapper;
+        load();
+    }
+
+    /**
+     * @return selector that worked for this host before, or null if there is none
+     */
+    public String selectorFor(String host) {
+        synchronized (rules) {
+            ExtractionRule rule = rules.get(host);
+            return rule == null ? null : rule.getSelector();
+        }
+    }
+
+    /**
+     * Whether the caller should check the rule against the full heuristic chain this time:
+     * after every {@value #REPROBE_EVERY_HITS} hits, and again after each miss until it hits or is dropped.
+     */
+    public boolean needsReprobe(String host) {
+        synchronized (rules) {
+            ExtractionRule rule = rules.get(host);
+            if (rule == null) return false;
+            return rule.getConsecutiveMisses() > 0 || (rule.getHits() + 1) % REPROBE_EVERY_HITS == 0;
+        }
+    }
+
+    public void recordHit(String host) {
+        synchronized (rules) {
+            ExtractionRule rule = rules.get(host);
+            if (rule == null) return;
+            rule.setHits(rule.getHits() + 1);
+            rule.setConsecutiveMisses(0);
+            scheduleSave();
+        }
+    }
+
+    public void recordMiss(String host) {
+        synchronized (rules) {
+            ExtractionRule rule = rules.get(host);
+            if (rule == null) return;
+            rule.setMisses(rule.getMisses() + 1);
+            rule.setConsecutiveMisses(rule.getConsecutiveMisses() + 1);
+
+            boolean unreliable = rule.getHits() + rule.getMisses() >= MIN_SAMPLES_FOR_HIT_RATE
+                    && rule.hitRate() < MIN_HIT_RATE;
+            if (rule.getConsecutiveMisses() >= MAX_CONSECUTIVE_MISSES || unreliable) {
+                rules.remove(host);
+                log.info("Dropped extraction rule '{}' for {} (hit rate {})", rule.getSelector(), host,
+                        String.format("%.2f", rule.hitRate()));
+            }
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Drop the rule of this host, e.g. one the caller no longer accepts.
+     */
+    public void forget(String host) {
+        synchronized (rules) {
+            if (rules.remove(host) != null) scheduleSave();
+        }
+    }
+
+    /**
+     * Remember the selector the full heuristic chain settled on. An existing rule is kept:
+     * it is only replaced after it has been dropped for missing.
+     */
+    public void learn(String host, String selector) {
+        synchronized (rules) {
+            if (rules.containsKey(host)) return;
+            rules.put(host, new ExtractionRule(host, selector, 0, 0, 0));
+            scheduleSave();
+        }
+        log.debug("Learned extraction rule '{}' for {}", selector, host);
+    }
+
+    // caller holds the rules lock
+    private void scheduleSave() {
+        if (saveScheduled) return;
+        saveScheduled = true;
+        saver.schedule(this::saveQuietly, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException e) {
+            log.warn("Could not save extraction rules to {}: {}", file.toAbsolutePath(), e.toString());
+        }
+    }
+
+    private void save() throws IOException {
+        List<ExtractionRule> snapshot = new ArrayList<>();
+        synchronized (rules) {
+            saveScheduled = false;
+            // copies: the live objects keep changing while we serialize
+            for (ExtractionRule r : rules.values()) {
+                snapshot.add(new ExtractionRule(r.getHost(), r.getSelector(), r.getHits(), r.getMisses(),
+                        r.getConsecutiveMisses()));
+            }
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        mapper.writeValue(tmp.toFile(), snapshot);
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void load() {
+        if (!Files.exists(file)) return;
+        try {
+            List<ExtractionRule> loaded = mapper.readValue(file.toFile(), new TypeReference<List<ExtractionRule>>() {});
+            synchronized (rules) {
+                for (ExtractionRule r : loaded) {
+                    if (r.getHost() != null && r.getSelector() != null) rules.put(r.getHost(), r);
+                }
+            }
+            log.info("Loaded {} extraction rules from {}", rules.size(), file.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not read extraction rules from {}: {}", file.toAbsolutePath(), e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        saver.shutdownNow();
+        saveQuietly();
+    }
+}
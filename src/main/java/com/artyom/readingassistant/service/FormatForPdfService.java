@@ -1,61 +1,91 @@
 package com.artyom.readingassistant.service;
 
 import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.model.SectionSummary;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class FormatForPdfService {
 
+    // configurable defaults (can be moved to application.properties later)
+    private static final int TEXT_SNIPPET_CHARS = 4000;
+
     public String formatPlainText(ArticleResult r) {
         StringBuilder sb = new StringBuilder();
+        try {
+            writePlainText(r, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return sb.toString();
+    }
 
-        sb.append(r.getTitle() != null ? r.getTitle() : "No title").append("\n");
-        sb.append("URL: ").append(r.getUrl() != null ? r.getUrl() : "").append("\n\n");
+    /**
+     * Same output as {@link #formatPlainText(ArticleResult)}, written straight to the target
+     * (a Writer of an HTTP response, a PDF line sink) without building the whole text first.
+     */
+    public void writePlainText(ArticleResult r, Appendable out) throws IOException {
+        out.append(r.getTitle() != null ? r.getTitle() : "No title").append("\n");
+        out.append("URL: ").append(r.getUrl() != null ? r.getUrl() : "").append("\n\n");
 
-        sb.append("---- Summary ----\n");
-        List<String> summary = safeList(r.getSummary());
-        if (summary.isEmpty()) {
-            sb.append("(no summary)\n\n");
+        out.append("---- Summary ----\n");
+        List<String> summary = r.getSummary();
+        if (isEmpty(summary)) {
+            out.append("(no summary)\n\n");
         } else {
-            summary.forEach(s -> sb.append("• ").append(s).append("\n"));
-            sb.append("\n");
+            for (String s : summary) out.append("• ").append(s).append("\n");
+            out.append("\n");
         }
 
-        sb.append("---- Key ideas ----\n");
-        List<String> ideas = safeList(r.getKeyIdeas());
-        if (ideas.isEmpty()) {
-            sb.append("(none)\n\n");
-        } else {
-            for (int i = 0; i < ideas.size(); i++) {
-                sb.append(i + 1).append(". ").append(ideas.get(i)).append("\n");
+        List<SectionSummary> sections = r.getSectionSummaries();
+        if (!isEmpty(sections)) {
+            out.append("---- Sections ----\n");
+            for (SectionSummary s : sections) {
+                out.append(s.getHeading() != null ? s.getHeading() : "(introduction)").append("\n");
+                if (s.getSummary() == null) continue;
+                for (String line : s.getSummary()) out.append("  • ").append(line).append("\n");
             }
-            sb.append("\n");
+            out.append("\n");
         }
 
-        sb.append("---- Action items ----\n");
-        List<String> items = safeList(r.getActionItems());
-        if (items.isEmpty()) {
-            sb.append("(none)\n\n");
+        out.append("---- Key ideas ----\n");
+        List<String> ideas = r.getKeyIdeas();
+        if (isEmpty(ideas)) {
+            out.append("(none)\n\n");
         } else {
-            items.forEach(it -> sb.append("[ ] ").append(it).append("\n"));
-            sb.append("\n");
+            int n = 1;
+            for (String idea : ideas) out.append(String.valueOf(n++)).append(". ").append(idea).append("\n");
+            out.append("\n");
         }
 
-        sb.append("---- Full text (snippet) ----\n");
-        if (r.getText() != null && !r.getText().isBlank()) {
-            String snippet = r.getText().length() > 4000 ? r.getText().substring(0, 4000) + "..." : r.getText();
-            sb.append(snippet).append("\n");
+        out.append("---- Action items ----\n");
+        List<String> items = r.getActionItems();
+        if (isEmpty(items)) {
+            out.append("(none)\n\n");
         } else {
-            sb.append("(no text)\n");
+            for (String it : items) out.append("[ ] ").append(it).append("\n");
+            out.append("\n");
         }
 
-        return sb.toString();
+        out.append("---- Full text (snippet) ----\n");
+        String text = r.getText();
+        if (text != null && !text.isBlank()) {
+            if (text.length() > TEXT_SNIPPET_CHARS) {
+                out.append(text, 0, TEXT_SNIPPET_CHARS).append("...");
+            } else {
+                out.append(text);
+            }
+            out.append("\n");
+        } else {
+            out.append("(no text)\n");
+        }
     }
 
-    private List<String> safeList(List<String> list) {
-        return list == null ? List.of() : list.stream().collect(Collectors.toList());
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.isEmpty();
     }
 }
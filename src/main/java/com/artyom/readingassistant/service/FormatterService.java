@@ -3,33 +3,63 @@ package com.artyom.readingassistant.service;
 import com.artyom.readingassistant.model.ArticleResult;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
 @Service
 public class FormatterService {
 
     public String formatArticleForTelegram(ArticleResult result) {
         StringBuilder sb = new StringBuilder();
-        sb.append("*").append(result.getTitle()).append("*\n\n");
+        try {
+            writeArticleForTelegram(result, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return sb.toString();
+    }
 
-        if (!result.getSummary().isEmpty()) {
-            sb.append("*Summary:*\n");
-            result.getSummary().forEach(s -> sb.append("- ").append(s).append("\n"));
-            sb.append("\n");
+    /**
+     * Same output as {@link #formatArticleForTelegram(ArticleResult)}, written straight to the target.
+     * Separators go before a block rather than after it, so nothing has to be trimmed at the end.
+     */
+    public void writeArticleForTelegram(ArticleResult result, Appendable out) throws IOException {
+        out.append("*").append(result.getTitle()).append("*");
+
+        List<String> summary = result.getSummary();
+        if (summary != null && !summary.isEmpty()) {
+            out.append("\n\n*Summary:*");
+            for (String s : summary) out.append("\n- ").append(s);
         }
 
-        if (!result.getKeyIdeas().isEmpty()) {
-            sb.append("*Key Ideas:*\n");
-            for (int i = 0; i < result.getKeyIdeas().size(); i++) {
-                sb.append(i + 1).append(". ").append(result.getKeyIdeas().get(i)).append("\n");
-            }
-            sb.append("\n");
+        List<String> keyIdeas = result.getKeyIdeas();
+        if (keyIdeas != null && !keyIdeas.isEmpty()) {
+            out.append("\n\n*Key Ideas:*");
+            int n = 1;
+            for (String idea : keyIdeas) out.append("\n").append(String.valueOf(n++)).append(". ").append(idea);
         }
 
-        if (!result.getActionItems().isEmpty()) {
-            sb.append("*Action Items:*\n");
-            result.getActionItems().forEach(a -> sb.append("- [ ] ").append(a).append("\n"));
-            sb.append("\n");
+        List<String> actionItems = result.getActionItems();
+        if (actionItems != null && !actionItems.isEmpty()) {
+            out.append("\n\n*Action Items:*");
+            for (String a : actionItems) out.append("\n- [ ] ").append(a);
         }
+    }
 
-        return sb.toString().trim();
+    /**
+     * Telegram rendering cut into messages of at most {@value TelegramMessageWriter#MAX_MESSAGE_CHARS}
+     * chars, preferably at paragraph boundaries. Each message is handed to the sink as soon as it is
+     * complete, so memory use does not depend on the size of the result.
+     */
+    public void writeTelegramMessages(ArticleResult result, Consumer<String> messageSink) {
+        TelegramMessageWriter writer = new TelegramMessageWriter(messageSink);
+        try {
+            writeArticleForTelegram(result, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // the writer itself never throws
+        }
+        writer.flush();
     }
 }
@@ -0,0 +1,66 @@
+package com.artyom.readingassistant.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recent fetch latencies per host, used for adaptive timeouts and hedging in ArticleFetcher.
+ *
+ * Each host keeps a ring of the last {@value #WINDOW} samples; percentiles are computed
+ * on demand from a sorted copy (cheap at this size). The number of tracked hosts is bounded (LRU).
+ */
+@Component
+public class HostLatencyTracker {
+
+    // configurable defaults (can be moved to application.properties later)
+    private static final int WINDOW = 128;
+    private static final int MIN_SAMPLES = 20;
+    private static final int MAX_HOSTS = 1000;
+
+    private final Map<String, Ring> hosts = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Ring> eldest) {
+            return size() > MAX_HOSTS;
+        }
+    };
+
+    private static final class Ring {
+        final long[] samples = new long[WINDOW];
+        int count;
+        int next;
+
+        void add(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % WINDOW;
+            if (count < WINDOW) count++;
+        }
+
+        long percentile(double p) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int idx = (int) Math.ceil(p * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, idx))];
+        }
+    }
+
+    public void record(String host, long millis) {
+        synchronized (hosts) {
+            hosts.computeIfAbsent(host, h -> new Ring()).add(millis);
+        }
+    }
+
+    /**
+     * @param p percentile in (0, 1], e.g. 0.95
+     * @return latency in millis, or -1 while the host has too few samples
+     */
+    public long percentile(String host, double p) {
+        synchronized (hosts) {
+            Ring ring = hosts.get(host);
+            if (ring == null || ring.count < MIN_SAMPLES) return -1;
+            return ring.percentile(p);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.artyom.readingassistant.service;
+
+import com.artyom.readingassistant.model.ActionItem;
+import com.artyom.readingassistant.model.PipelineStage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Paragraph-level incremental analysis.
+ *
+ * For each URL we remember a content hash of every paragraph together with its analysis
+ * (prepared summary sentences, key ideas, action items). When the same URL is analyzed again,
+ * only new or changed paragraphs go through TextPreprocessor and the extractors; the summary
+ * is recombined from cached sentence scores, which is a cheap linear pass.
+ *
+ * Paragraphs are the blocks ArticleFetcher separates with a blank line. Sentences never
+ * span two paragraphs here, which is also what makes the per-paragraph results reusable.
+ *
+ * Only the requested stages are computed. Every paragraph-level stage is a step in one table,
+ * run in PipelineStage order (dependencies are declared first, so that order is the dependency
+ * order); a step reads the outputs of the stages it depends on. A cached paragraph that lacks
+ * a stage requested now gets just that step run and its output merged into the cache entry.
+ *
+ * The cache is bounded both by URL count and by the total length of the cached paragraphs
+ * (the sentence data kept per paragraph is proportional to it); least recently used URLs go first.
+ */
+@Service
+public class IncrementalAnalyzer {
+
+    private static final Logger log = LoggerFactory.getLogger(IncrementalAnalyzer.class);
+
+    // configurable defaults (can be moved to application.properties later)
+    private static final int MAX_CACHED_URLS = 256;
+    private static final long MAX_CACHED_CHARS = 16L * 1024 * 1024; // paragraph text of all cached URLs
+
+    private final TextPreprocessor preprocessor;
+    private final SummaryEngine summaryEngine;
+    private final KeyIdeasExtractor keyIdeasExtractor;
+    private final ActionItemsExtractor actionItemsExtractor;
+
+    // per-paragraph work of each stage; EnumMap iterates in PipelineStage order
+    private final Map<PipelineStage, ParagraphStep> paragraphSteps = new EnumMap<>(PipelineStage.class);
+
+    // url -> paragraph analyses; access-ordered for LRU eviction, see cache()
+    private final Map<String, Snapshot> snapshots = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedChars; // guarded by snapshots
+
+    public IncrementalAnalyzer(
+            TextPreprocessor preprocessor,
+            SummaryEngine summaryEngine,
+            KeyIdeasExtractor keyIdeasExtractor,
+            ActionItemsExtractor actionItemsExtractor
+    ) {
+        this.preprocessor = preprocessor;
+        this.summaryEngine = summaryEngine;
+        this.keyIdeasExtractor = keyIdeasExtractor;
+        this.actionItemsExtractor = actionItemsExtractor;
+
+        paragraphSteps.put(PipelineStage.PREPROCESS, (paragraph, upstream) -> preprocessor.preprocess(paragraph));
+        paragraphSteps.put(PipelineStage.SUMMARY, (paragraph, upstream) -> {
+            List<SummaryEngine.SentenceScore> prepared = new ArrayList<>(upstream.sentences().size());
+            for (String s : upstream.sentences()) prepared.add(summaryEngine.prepare(s));
+            return prepared;
+        });
+        paragraphSteps.put(PipelineStage.KEY_IDEAS, (paragraph, upstream) -> keyIdeasExtractor.extract(upstream.sentences()));
+        paragraphSteps.put(PipelineStage.ACTION_ITEMS, (paragraph, upstream) -> {
+            List<String> items = new ArrayList<>();
+            for (ActionItem item : actionItemsExtractor.extract(paragraph)) items.add(item.getText());
+            return items;
+        });
+    }
+
+    // Per-paragraph part of one stage; upstream holds the outputs of the stages it depends on
+    @FunctionalInterface
+    private interface ParagraphStep {
+        List<?> run(String paragraph, ParagraphAnalysis upstream);
+    }
+
+    // Outputs of the stages that have run for this paragraph. Filled while the paragraph is analyzed,
+    // never changed once the entry is in the cache (a later run copies it)
+    private static final class ParagraphAnalysis {
+        final Map<PipelineStage, List<?>> outputs;
+
+        ParagraphAnalysis(Map<PipelineStage, List<?>> outputs) {
+            this.outputs = outputs;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String> sentences() {
+            return (List<String>) outputs.get(PipelineStage.PREPROCESS);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<SummaryEngine.SentenceScore> scores() {
+            return (List<SummaryEngine.SentenceScore>) outputs.get(PipelineStage.SUMMARY);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String> keyIdeas() {
+            return (List<String>) outputs.get(PipelineStage.KEY_IDEAS);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<String> actionItems() {
+            return (List<String>) outputs.get(PipelineStage.ACTION_ITEMS);
+        }
+    }
+
+    // What is cached for one URL: paragraph hash -> analysis, and the length of those paragraphs
+    private static final class Snapshot {
+        final Map<Long, ParagraphAnalysis> paragraphs;
+        final long chars;
+
+        Snapshot(Map<Long, ParagraphAnalysis> paragraphs, long chars) {
+            this.paragraphs = paragraphs;
+            this.chars = chars;
+        }
+    }
+
+    /**
+     * Analyze text of the given URL, reusing whatever paragraphs did not change since the last call.
+     * Results of stages that are not in {@code stages} are empty lists.
+     */
+    TextAnalysis analyze(String url, String text, Set<PipelineStage> stages, StageTimings timings) {
+        boolean summaryOn = stages.contains(PipelineStage.SUMMARY);
+        boolean keyIdeasOn = stages.contains(PipelineStage.KEY_IDEAS);
+        boolean actionItemsOn = stages.contains(PipelineStage.ACTION_ITEMS);
+
+        if (text == null || text.isBlank()) {
+            return new TextAnalysis(List.of(), List.of(), List.of());
+        }
+
+        Snapshot cached;
+        synchronized (snapshots) {
+            cached = url == null ? null : snapshots.get(url);
+        }
+        Map<Long, ParagraphAnalysis> previous = cached == null ? Map.of() : cached.paragraphs;
+
+        Map<Long, ParagraphAnalysis> current = new HashMap<>();
+        List<SummaryEngine.SentenceScore> allScores = new ArrayList<>();
+        List<String> keyIdeas = new ArrayList<>();
+        List<String> actionItems = new ArrayList<>();
+        int reused = 0;
+        int total = 0;
+        long chars = 0;
+
+        for (String paragraph : Paragraphs.split(text)) {
+            total++;
+            long hash = Paragraphs.hash(paragraph);
+            ParagraphAnalysis analysis = current.get(hash);
+            if (analysis == null) chars += paragraph.length();
+            if (analysis == null) analysis = previous.get(hash);
+            if (analysis != null && covers(analysis, stages)) {
+                reused++;
+            } else {
+                analysis = analyzeParagraph(paragraph, analysis, stages, timings);
+            }
+            current.put(hash, analysis);
+
+            if (summaryOn) allScores.addAll(analysis.scores());
+            if (keyIdeasOn) keyIdeas.addAll(analysis.keyIdeas());
+            if (actionItemsOn) actionItems.addAll(analysis.actionItems());
+        }
+
+        if (url != null) cache(url, new Snapshot(current, chars));
+        log.debug("Incremental analysis of {}: reused {} of {} paragraphs", url, reused, total);
+
+        List<String> summary = summaryOn
+                ? timings.time(PipelineStage.SUMMARY, () -> summaryEngine.select(allScores))
+                : List.of();
+        return new TextAnalysis(summary, keyIdeas, actionItems);
+    }
+
+    // Keep the snapshot, then drop least recently used URLs until both bounds hold again
+    // (a text larger than the whole budget is dropped right away)
+    private void cache(String url, Snapshot snapshot) {
+        synchronized (snapshots) {
+            Snapshot replaced = snapshots.put(url, snapshot);
+            cachedChars += snapshot.chars - (replaced == null ? 0 : replaced.chars);
+            Iterator<Snapshot> lru = snapshots.values().iterator();
+            while ((snapshots.size() > MAX_CACHED_URLS || cachedChars > MAX_CACHED_CHARS) && lru.hasNext()) {
+                cachedChars -= lru.next().chars;
+                lru.remove();
+            }
+        }
+    }
+
+    private boolean covers(ParagraphAnalysis analysis, Set<PipelineStage> stages) {
+        for (PipelineStage stage : paragraphSteps.keySet()) {
+            if (stages.contains(stage) && !analysis.outputs.containsKey(stage)) return false;
+        }
+        return true;
+    }
+
+    // Run the missing steps for one paragraph, keeping whatever the cached entry already has
+    private ParagraphAnalysis analyzeParagraph(String paragraph, ParagraphAnalysis cached,
+                                               Set<PipelineStage> stages, StageTimings timings) {
+        Map<PipelineStage, List<?>> outputs = cached == null
+                ? new EnumMap<>(PipelineStage.class)
+                : new EnumMap<>(cached.outputs);
+        ParagraphAnalysis analysis = new ParagraphAnalysis(outputs);
+
+        for (Map.Entry<PipelineStage, ParagraphStep> step : paragraphSteps.entrySet()) {
+            PipelineStage stage = step.getKey();
+            if (!stages.contains(stage) || outputs.containsKey(stage)) continue;
+            outputs.put(stage, timings.time(stage, () -> step.getValue().run(paragraph, analysis)));
+        }
+        return analysis;
+    }
+}
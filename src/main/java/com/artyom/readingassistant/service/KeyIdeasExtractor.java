@@ -53,15 +53,20 @@ public class KeyIdeasExtractor {
         List<String> ideas = new ArrayList<>();
 
         for (String s : sentences) {
-            String lower = s.toLowerCase();
-            for (String m : MARKERS) {
-                if (lower.contains(m)) {
-                    ideas.add(s);
-                    break;
-                }
-            }
+            if (isKeyIdea(s)) ideas.add(s);
         }
 
         return ideas;
     }
+
+    /**
+     * Проверка одного предложения.
+     */
+    private boolean isKeyIdea(String sentence) {
+        String lower = sentence.toLowerCase();
+        for (String m : MARKERS) {
+            if (lower.contains(m)) return true;
+        }
+        return false;
+    }
 }
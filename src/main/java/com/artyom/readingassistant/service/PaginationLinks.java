@@ -0,0 +1,151 @@
+package com.artyom.readingassistant.service;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.net.URI;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the other pages of a paginated article.
+ *
+ * Recognized forms (relative to the first page's URL):
+ *  - the same URL with a "page=N" query parameter
+ *  - the same path followed by "/page/N"
+ *  - a rel="next" link, used as page 2 when no numbered links are present
+ *
+ * Pagination widgets often elide the middle ("1 2 3 … 10"); the missing numbers are filled in
+ * from the URL pattern of the linked pages, so no page is skipped.
+ */
+final class PaginationLinks {
+
+    private static final Pattern PAGE_PARAM = Pattern.compile("(^|&)page=(\\d{1,4})(?=&|$)");
+    private static final Pattern PAGE_PATH = Pattern.compile("/page/(\\d{1,4})/?$");
+
+    private PaginationLinks() {
+    }
+
+    /**
+     * @return page number -> absolute URL, for pages after the current one, up to maxPage
+     */
+    static SortedMap<Integer, String> find(String url, Document doc, int maxPage) {
+        SortedMap<Integer, String> pages = new TreeMap<>();
+        PageRef base = PageRef.of(url);
+        if (base == null) return pages;
+
+        PageRef template = null;
+        int last = 0;
+        for (Element a : doc.select("a[href], link[rel=next]")) {
+            PageRef ref = PageRef.of(a.absUrl("href"));
+            if (ref == null || !ref.key.equals(base.key) || ref.number <= base.number) continue;
+            if (ref.number <= maxPage) pages.putIfAbsent(ref.number, ref.url);
+            if (ref.template() && ref.number > last) {
+                template = ref;
+                last = ref.number;
+            }
+        }
+
+        if (template != null) {
+            for (int n = base.number + 1; n <= Math.min(last, maxPage); n++) {
+                pages.putIfAbsent(n, template.withNumber(n));
+            }
+        }
+
+        if (pages.isEmpty()) {
+            String next = nextLink(doc);
+            if (next != null && !next.equals(url) && sameHost(url, next) && base.number + 1 <= maxPage) {
+                pages.put(base.number + 1, next);
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * @return absolute URL of the rel="next" link, or null
+     */
+    static String nextLink(Document doc) {
+        Element next = doc.selectFirst("link[rel=next], a[rel=next]");
+        if (next == null) return null;
+        String href = next.absUrl("href");
+        return href.isEmpty() ? null : href;
+    }
+
+    static boolean sameHost(String a, String b) {
+        try {
+            String hostA = URI.create(a).getHost();
+            return hostA != null && hostA.equalsIgnoreCase(URI.create(b).getHost());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // URL split into "everything but the page number" and the page number (1 when absent);
+    // when the number is in the URL, the text around it allows building the URL of any other page
+    private static final class PageRef {
+        final String url;
+        final String key;
+        final int number;
+        final String beforeNumber; // null when the URL has no page number
+        final String afterNumber;
+
+        PageRef(String url, String key, int number, String beforeNumber, String afterNumber) {
+            this.url = url;
+            this.key = key;
+            this.number = number;
+            this.beforeNumber = beforeNumber;
+            this.afterNumber = afterNumber;
+        }
+
+        boolean template() {
+            return beforeNumber != null;
+        }
+
+        String withNumber(int n) {
+            return beforeNumber + n + afterNumber;
+        }
+
+        static PageRef of(String url) {
+            if (url == null || url.isEmpty()) return null;
+            URI uri;
+            try {
+                uri = URI.create(url);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            if (uri.getHost() == null) return null;
+
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            String query = uri.getRawQuery() == null ? "" : uri.getRawQuery();
+            int number = 1;
+            int digitsAt = -1; // position of the page number in url
+            int digitsEnd = -1;
+
+            Matcher m = PAGE_PARAM.matcher(query);
+            if (m.find()) {
+                number = Integer.parseInt(m.group(2));
+                int queryAt = url.indexOf('?') + 1;
+                digitsAt = queryAt + m.start(2);
+                digitsEnd = queryAt + m.end(2);
+                query = (query.substring(0, m.start()) + query.substring(m.end())).replaceAll("^&|&$", "");
+            } else {
+                m = PAGE_PATH.matcher(path);
+                if (m.find()) {
+                    number = Integer.parseInt(m.group(1));
+                    int pathAt = url.indexOf('/', url.indexOf("//") + 2);
+                    digitsAt = pathAt + m.start(1);
+                    digitsEnd = pathAt + m.end(1);
+                    path = path.substring(0, m.start());
+                }
+            }
+            if (path.endsWith("/")) path = path.substring(0, path.length() - 1);
+
+            String key = uri.getHost().toLowerCase(Locale.ROOT) + path + "?" + query;
+            if (digitsAt < 0 || !url.substring(digitsAt, digitsEnd).equals(Integer.toString(number))) {
+                return new PageRef(url, key, number, null, null);
+            }
+            return new PageRef(url, key, number, url.substring(0, digitsAt), url.substring(digitsEnd));
+        }
+    }
+}
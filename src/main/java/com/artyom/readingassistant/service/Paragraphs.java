@@ -0,0 +1,46 @@
+package com.artyom.readingassistant.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paragraph helpers shared by the per-paragraph stages (IncrementalAnalyzer, BoilerplateFilter,
+ * page merging in ArticleFetcher). A paragraph is a block separated by an empty line, which is
+ * how ArticleFetcher joins the paragraphs it extracts.
+ */
+final class Paragraphs {
+
+    private Paragraphs() {
+    }
+
+    /**
+     * Split text into its paragraphs; blank blocks are skipped.
+     */
+    static List<String> split(String text) {
+        List<String> paragraphs = new ArrayList<>();
+        int start = 0;
+        int idx;
+        while ((idx = text.indexOf("\n\n", start)) >= 0) {
+            addIfNotBlank(paragraphs, text.substring(start, idx));
+            start = idx + 2;
+        }
+        addIfNotBlank(paragraphs, text.substring(start));
+        return paragraphs;
+    }
+
+    /**
+     * 64-bit FNV-1a over chars, seeded with the length to make collisions even less likely.
+     */
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L ^ s.length();
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static void addIfNotBlank(List<String> paragraphs, String p) {
+        if (!p.isBlank()) paragraphs.add(p);
+    }
+}
@@ -1,6 +1,7 @@
 package com.artyom.readingassistant.service;
 
 import com.artyom.readingassistant.model.ArticleResult;
+import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Service;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 
 @Service
 public class PdfExporter {
@@ -46,41 +48,126 @@ public class PdfExporter {
      * Экспорт plain text в PDF.
      */
     public void exportTextToPdf(String text, String outFilePath) throws IOException {
-        try (PDDocument doc = new PDDocument()) {
-            PDPage page = new PDPage(PDRectangle.LETTER);
-            doc.addPage(page);
+        try (Writer out = openTextWriter(outFilePath)) {
+            out.write(text);
+        }
+    }
 
-            PDType0Font font = loadFontOrDefault(doc);
+    /**
+     * PDF как приёмник строк: текст пишется по мере формирования (например, через
+     * FormatForPdfService.writePlainText), без промежуточной строки со всем документом.
+     * Каждая строка переносится по ширине, при нехватке места начинается новая страница.
+     * Содержимое готовых страниц держится во временном файле, а не в куче, так что расход памяти
+     * не растёт с длиной документа. Файл сохраняется при close().
+     */
+    public Writer openTextWriter(String outFilePath) throws IOException {
+        PDDocument doc = new PDDocument(IOUtils.createTempFileOnlyStreamCache());
+        try {
+            return new PdfLineWriter(doc, loadFontOrDefault(doc), new File(outFilePath));
+        } catch (IOException | RuntimeException e) {
+            doc.close();
+            throw e;
+        }
+    }
 
-            float fontSize = 11;
-            float leading = 1.2f * fontSize;
-            float margin = 50;
+    private final class PdfLineWriter extends Writer {
+        private static final float FONT_SIZE = 11;
+        private static final float LEADING = 1.2f * FONT_SIZE;
+        private static final float MARGIN = 50;
+
+        private final PDDocument doc;
+        private final PDType0Font font;
+        private final File out;
+        private final StringBuilder line = new StringBuilder();
+
+        private PDPageContentStream content;
+        private float bottomY;
+        private float width;
+        private float y;
+        private boolean closed;
+
+        PdfLineWriter(PDDocument doc, PDType0Font font, File out) throws IOException {
+            this.doc = doc;
+            this.font = font;
+            this.out = out;
+            newPage();
+        }
 
-            PDRectangle box = page.getMediaBox();
-            float width = box.getWidth() - 2 * margin;
-            float startX = box.getLowerLeftX() + margin;
-            float startY = box.getUpperRightY() - margin;
-
-            try (PDPageContentStream content = new PDPageContentStream(doc, page)) {
-                content.beginText();
-                content.setFont(font, fontSize);
-                content.newLineAtOffset(startX, startY);
-
-                String[] paragraphs = text.split("\\r?\\n");
-
-                for (String para : paragraphs) {
-                    for (String line : wrapText(para, font, fontSize, width)) {
-                        content.showText(line);
-                        content.newLineAtOffset(0, -leading);
-                    }
-                    content.newLineAtOffset(0, -leading);
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                char c = cbuf[i];
+                if (c == '\n') {
+                    writeParagraph();
+                } else if (c != '\r') {
+                    line.append(c);
                 }
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                char c = str.charAt(i);
+                if (c == '\n') {
+                    writeParagraph();
+                } else if (c != '\r') {
+                    line.append(c);
+                }
+            }
+        }
+
+        // Абзац: перенесённые строки и пустая строка после него
+        private void writeParagraph() throws IOException {
+            for (String wrapped : wrapText(line.toString(), font, FONT_SIZE, width)) {
+                if (y < bottomY) newPage();
+                content.showText(wrapped);
+                content.newLineAtOffset(0, -LEADING);
+                y -= LEADING;
+            }
+            content.newLineAtOffset(0, -LEADING);
+            y -= LEADING;
+            line.setLength(0);
+        }
 
+        private void newPage() throws IOException {
+            if (content != null) {
                 content.endText();
+                content.close();
             }
+            PDPage page = new PDPage(PDRectangle.LETTER);
+            doc.addPage(page);
 
-            File out = new File(outFilePath);
-            doc.save(out);
+            PDRectangle box = page.getMediaBox();
+            width = box.getWidth() - 2 * MARGIN;
+            float startX = box.getLowerLeftX() + MARGIN;
+            float startY = box.getUpperRightY() - MARGIN;
+            bottomY = box.getLowerLeftY() + MARGIN;
+            y = startY;
+
+            content = new PDPageContentStream(doc, page);
+            content.beginText();
+            content.setFont(font, FONT_SIZE);
+            content.newLineAtOffset(startX, startY);
+        }
+
+        @Override
+        public void flush() {
+            // страницы пишутся в файл целиком при close()
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                if (line.length() > 0) writeParagraph();
+                content.endText();
+                content.close();
+                doc.save(out);
+            } finally {
+                doc.close();
+            }
         }
     }
 
@@ -1,42 +1,66 @@
 package com.artyom.readingassistant.service;
 
-import com.artyom.readingassistant.model.ActionItem;
 import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.model.PipelineStage;
+import com.artyom.readingassistant.search.ArticleIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Orchestrator for the article processing pipeline.
- * - Fetch raw article (ArticleFetcher -> ArticleResult)
- * - Preprocess text into sentences (TextPreprocessor)
- * - Produce summary (SummaryEngine)
- * - Extract key ideas (KeyIdeasExtractor)
- * - Extract action items (ActionItemsExtractor)
+ * - Fetch raw article (ArticleFetcher -> ArticleResult), within the fetch concurrency limit
+ * - Analyze the text paragraph by paragraph (IncrementalAnalyzer):
+ *   preprocess into sentences, summary, key ideas, action items;
+ *   unchanged paragraphs of an already seen URL are taken from cache;
+ *   with the opt-in "sections" stage the summary is built per h1/h2/h3 section (SectionSummarizer);
+ *   this runs within the analysis concurrency limit, taken only once the page has been fetched
+ * - Add the result to the local search index (ArticleIndex)
  * - Return consolidated ArticleResult
+ *
+ * Callers may ask for a subset of the stages (see PipelineStage); stages that were not requested
+ * and are not needed by a requested one are skipped and their fields are empty lists
+ * (sectionSummaries is only set when the "sections" stage was requested).
+ * Every stage that ran is timed into the "reading.pipeline.stage" timer, tagged by stage.
  */
 @Service
 public class ReadingPipeline {
 
+    private static final Logger log = LoggerFactory.getLogger(ReadingPipeline.class);
+
     private final ArticleFetcher fetcher;
-    private final TextPreprocessor preprocessor;
-    private final SummaryEngine summaryEngine;
-    private final KeyIdeasExtractor keyIdeasExtractor;
-    private final ActionItemsExtractor actionItemsExtractor;
+    private final IncrementalAnalyzer analyzer;
+    private final SectionSummarizer sectionSummarizer;
+    private final ArticleIndex articleIndex;
+    private final AdmissionControl admission;
+    private final Map<PipelineStage, Timer> stageTimers = new EnumMap<>(PipelineStage.class);
 
     public ReadingPipeline(
             ArticleFetcher fetcher,
-            TextPreprocessor preprocessor,
-            SummaryEngine summaryEngine,
-            KeyIdeasExtractor keyIdeasExtractor,
-            ActionItemsExtractor actionItemsExtractor
+            IncrementalAnalyzer analyzer,
+            SectionSummarizer sectionSummarizer,
+            ArticleIndex articleIndex,
+            AdmissionControl admission,
+            MeterRegistry registry
     ) {
         this.fetcher = fetcher;
-        this.preprocessor = preprocessor;
-        this.summaryEngine = summaryEngine;
-        this.keyIdeasExtractor = keyIdeasExtractor;
-        this.actionItemsExtractor = actionItemsExtractor;
+        this.analyzer = analyzer;
+        this.sectionSummarizer = sectionSummarizer;
+        this.articleIndex = articleIndex;
+        this.admission = admission;
+
+        for (PipelineStage stage : PipelineStage.values()) {
+            stageTimers.put(stage, registry.timer("reading.pipeline.stage", "stage", stage.getParamName()));
+        }
     }
 
     /**
@@ -44,41 +68,117 @@ public class ReadingPipeline {
      *
      * @param url article URL
      * @return ArticleResult containing both raw text and processed fragments
+     * @throws com.artyom.readingassistant.exception.OverloadedException if fetch or analysis is at its limit
      */
     public ArticleResult analyze(String url) {
-        // 1) fetch article (returns ArticleResult with title and text)
-        ArticleResult fetched = fetcher.fetch(url);
+        return analyze(url, PipelineStage.DEFAULT);
+    }
 
+    /**
+     * Same as {@link #analyze(String)}, running only the given stages and their dependencies.
+     *
+     * @param url article URL
+     * @param stages requested stages; the fetch always runs
+     * @return ArticleResult with empty lists for the stages that were skipped
+     */
+    public ArticleResult analyze(String url, Set<PipelineStage> stages) {
+        // 1) fetch article (returns ArticleResult with title and text)
+        ArticleResult fetched = fetch(url);
         if (fetched == null) {
             // defensive: return empty result
             return new ArticleResult(url, "", "", List.of(), List.of(), List.of());
         }
+        return analyzeWithinLimit(fetched, stages);
+    }
 
-        String rawText = fetched != null && fetched.getText() != null ? fetched.getText() : "";
+    /**
+     * Fetch step of {@link #analyze(String, Set)} on its own, within the fetch concurrency limit.
+     *
+     * @return ArticleResult with url, title and text, or null
+     * @throws com.artyom.readingassistant.exception.OverloadedException if fetch is at its limit
+     */
+    public ArticleResult fetch(String url) {
+        long start = System.nanoTime();
+        ArticleResult fetched = admission.run(AdmissionControl.Stage.FETCH, () -> fetcher.fetch(url));
+        stageTimers.get(PipelineStage.FETCH).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return fetched;
+    }
 
-        // 2) preprocess: split into sentences, clean up
-        List<String> sentences = preprocessor.preprocess(fetched.getText());
+    /**
+     * Analysis step of {@link #analyze(String, Set)} on its own, within the analysis concurrency limit.
+     * The slot is only taken once the page is here, so slow origins never count against the CPU limit;
+     * a caller shed here can retry this step with the same fetched page instead of downloading it again.
+     *
+     * @param fetched non-null result of {@link #fetch(String)}
+     * @throws com.artyom.readingassistant.exception.OverloadedException if analysis is at its limit
+     */
+    public ArticleResult analyzeWithinLimit(ArticleResult fetched, Set<PipelineStage> stages) {
+        return admission.run(AdmissionControl.Stage.ANALYSIS, () -> analyzeFetched(fetched, stages));
+    }
+
+    /**
+     * Everything after the fetch, for an article whose text is already extracted
+     * (e.g. offline corpus replay). Not subject to admission control: callers bring their own
+     * bounded parallelism.
+     *
+     * @param fetched ArticleResult with url, title and text
+     * @return ArticleResult containing both raw text and processed fragments
+     */
+    public ArticleResult analyzeFetched(ArticleResult fetched) {
+        return analyzeFetched(fetched, PipelineStage.DEFAULT);
+    }
 
-        // 3) summary: top N sentences
-        List<String> summary = summaryEngine.summarize(sentences);
+    /**
+     * Same as {@link #analyzeFetched(ArticleResult)}, running only the given stages and their dependencies.
+     */
+    public ArticleResult analyzeFetched(ArticleResult fetched, Set<PipelineStage> stages) {
+        Set<PipelineStage> resolved = PipelineStage.resolve(stages);
+        StageTimings timings = new StageTimings();
+        String text = fetched.getText() != null ? fetched.getText() : "";
 
-        // 4) key ideas
-        List<String> keyIdeas = keyIdeasExtractor.extract(sentences);
+        // 2) per-section summaries; they replace the flat summary, which then is not computed at all.
+        // Too few sections: fall back to the flat summary
+        SectionSummarizer.Result sectioned = null;
+        Set<PipelineStage> flatStages = resolved;
+        if (resolved.contains(PipelineStage.SECTIONS)) {
+            sectioned = timings.time(PipelineStage.SECTIONS, () -> sectionSummarizer.summarize(
+                    sectionSummarizer.split(text, fetched.getSectionHeadings())));
+            flatStages = EnumSet.copyOf(resolved);
+            if (sectioned != null) flatStages.remove(PipelineStage.SUMMARY);
+            else flatStages.add(PipelineStage.SUMMARY);
+            flatStages = PipelineStage.resolve(flatStages);
+        }
 
-        // 5) action items (ActionItemsExtractor may return domain objects) -> map to strings
-        List<ActionItem> actionItemsDomain = actionItemsExtractor.extract(fetched.getText());
-        List<String> actionItems = actionItemsDomain == null
-                ? List.of()
-                : actionItemsDomain.stream().map(ActionItem::getText).collect(Collectors.toList());
+        // 3) requested fragments only; only new or changed paragraphs are processed
+        TextAnalysis analysis = analyzer.analyze(fetched.getUrl(), text, flatStages, timings);
 
-        // 6) assemble final ArticleResult (keep original title and raw text)
+        // 4) assemble final ArticleResult (keep original title and raw text)
         ArticleResult result = new ArticleResult();
         result.setUrl(fetched.getUrl());
         result.setTitle(fetched.getTitle());
         result.setText(fetched.getText());
-        result.setSummary(summary);
-        result.setKeyIdeas(keyIdeas);
-        result.setActionItems(actionItems);
+        result.setSummary(sectioned != null ? sectioned.summary : analysis.summary);
+        result.setKeyIdeas(analysis.keyIdeas);
+        result.setActionItems(analysis.actionItems);
+        if (resolved.contains(PipelineStage.SECTIONS)) {
+            result.setSectionSummaries(sectioned != null ? sectioned.sections : List.of());
+        }
+
+        timings.asMap().forEach((stage, nanos) ->
+                stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS));
+        if (log.isDebugEnabled()) {
+            log.debug("Stage timings for {}: {}", fetched.getUrl(), timings.asMap());
+        }
+
+        // 5) make it searchable; a partial analysis would replace a full one, so only complete results go in.
+        // Indexing problems must never fail the analysis itself
+        if (resolved.containsAll(PipelineStage.DEFAULT)) {
+            try {
+                articleIndex.add(result);
+            } catch (Exception e) {
+                log.warn("Failed to index {}: {}", result.getUrl(), e.toString());
+            }
+        }
 
         return result;
     }
@@ -0,0 +1,28 @@
+package com.artyom.readingassistant.service;
+
+/**
+ * Token bucket that caps extra (hedged) requests to a fraction of regular traffic:
+ * every regular request deposits {@code ratio} tokens, every extra request costs one.
+ * This keeps hedging from amplifying load exactly when origins are slow.
+ */
+final class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    RetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,164 @@
+package com.artyom.readingassistant.service;
+
+import com.artyom.readingassistant.model.SectionHeading;
+import com.artyom.readingassistant.model.SectionSummary;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Hierarchical summary for long, structured documents.
+ *
+ * The text is split at the h1/h2/h3 boundaries ArticleFetcher recorded; every section is
+ * preprocessed and summarized on its own, on a shared fork/join pool. The final summary
+ * is then picked from the section summaries only, instead of scoring every sentence of the
+ * document against each other.
+ *
+ * One call runs on the pool as at most {@code 2^MAX_SPLIT_DEPTH} batches at a time. The call holds
+ * a single analysis admission slot (AdmissionControl), so its fan-out has to stay small for that
+ * slot to still mean roughly one request's worth of CPU; the pool size caps all calls together.
+ */
+@Service
+public class SectionSummarizer {
+
+    // configurable defaults (can be moved to application.properties later)
+    private static final int MIN_SECTIONS = 2;
+    private static final int SEQUENTIAL_THRESHOLD_CHARS = 32 * 1024; // smaller batches are not split further
+    private static final int MAX_SPLIT_DEPTH = 1; // at most 2 batches of one call run at the same time
+
+    private final TextPreprocessor preprocessor;
+    private final SummaryEngine summaryEngine;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public SectionSummarizer(TextPreprocessor preprocessor, SummaryEngine summaryEngine) {
+        this.preprocessor = preprocessor;
+        this.summaryEngine = summaryEngine;
+    }
+
+    static final class Section {
+        final String heading; // null for the text before the first heading
+        final String text;
+
+        Section(String heading, String text) {
+            this.heading = heading;
+            this.text = text;
+        }
+    }
+
+    static final class Result {
+        final List<String> summary;
+        final List<SectionSummary> sections;
+
+        Result(List<String> summary, List<SectionSummary> sections) {
+            this.summary = summary;
+            this.sections = sections;
+        }
+    }
+
+    /**
+     * Split the text (paragraphs separated by an empty line) where the recorded sections start.
+     * A start is matched by paragraph text and by which copy of that text it is, so a paragraph
+     * repeated earlier in the document does not open the section too soon. A section whose first
+     * paragraph is no longer in the text (e.g. filtered as boilerplate) simply stays part of the previous one.
+     */
+    List<Section> split(String text, List<SectionHeading> headings) {
+        if (text == null || text.isBlank() || headings == null || headings.isEmpty()) return List.of();
+
+        // (first paragraph, copy) -> heading starting there
+        Map<String, Map<Integer, String>> starts = new HashMap<>();
+        for (SectionHeading h : headings) {
+            starts.computeIfAbsent(h.getFirstParagraph(), k -> new HashMap<>())
+                    .putIfAbsent(h.getOccurrence(), h.getHeading());
+        }
+
+        List<Section> sections = new ArrayList<>();
+        Map<String, Integer> copies = new HashMap<>();
+        String heading = null;
+        StringBuilder body = new StringBuilder();
+        for (String paragraph : text.split("\n\n")) {
+            String key = paragraph.strip();
+            Map<Integer, String> startsHere = starts.get(key);
+            if (startsHere != null) {
+                String next = startsHere.get(copies.merge(key, 1, Integer::sum) - 1);
+                if (next != null) {
+                    addSection(sections, heading, body);
+                    heading = next;
+                    body.setLength(0);
+                }
+            }
+            if (body.length() > 0) body.append("\n\n");
+            body.append(paragraph);
+        }
+        addSection(sections, heading, body);
+        return sections;
+    }
+
+    private static void addSection(List<Section> sections, String heading, StringBuilder body) {
+        if (!body.toString().isBlank()) sections.add(new Section(heading, body.toString()));
+    }
+
+    /**
+     * @return section summaries plus the summary chosen across them,
+     *         or null when there are too few sections for this to make sense
+     */
+    Result summarize(List<Section> sections) {
+        if (sections.size() < MIN_SECTIONS) return null;
+
+        List<SectionSummary> perSection = pool.invoke(
+                new SummarizeTask(sections, 0, sections.size(), MAX_SPLIT_DEPTH));
+
+        List<String> candidates = new ArrayList<>();
+        for (SectionSummary s : perSection) candidates.addAll(s.getSummary());
+        return new Result(summaryEngine.summarize(candidates), perSection);
+    }
+
+    // Halves the section range until a batch is small enough or the split budget is used up,
+    // then summarizes the batch in place
+    private final class SummarizeTask extends RecursiveTask<List<SectionSummary>> {
+        private final List<Section> sections;
+        private final int from;
+        private final int to;
+        private final int splitsLeft;
+
+        SummarizeTask(List<Section> sections, int from, int to, int splitsLeft) {
+            this.sections = sections;
+            this.from = from;
+            this.to = to;
+            this.splitsLeft = splitsLeft;
+        }
+
+        @Override
+        protected List<SectionSummary> compute() {
+            if (splitsLeft == 0 || to - from == 1 || chars() <= SEQUENTIAL_THRESHOLD_CHARS) {
+                List<SectionSummary> out = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    Section s = sections.get(i);
+                    out.add(new SectionSummary(s.heading, summaryEngine.summarize(preprocessor.preprocess(s.text))));
+                }
+                return out;
+            }
+
+            int mid = (from + to) >>> 1;
+            SummarizeTask left = new SummarizeTask(sections, from, mid, splitsLeft - 1);
+            left.fork();
+            List<SectionSummary> right = new SummarizeTask(sections, mid, to, splitsLeft - 1).compute();
+            List<SectionSummary> out = new ArrayList<>(left.join());
+            out.addAll(right);
+            return out;
+        }
+
+        private long chars() {
+            long total = 0;
+            for (int i = from; i < to; i++) total += sections.get(i).text.length();
+            return total;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,34 @@
+package com.artyom.readingassistant.service;
+
+import com.artyom.readingassistant.model.PipelineStage;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Accumulated wall time per pipeline stage for one request. Stages such as summary scoring
+ * run once per paragraph, so their time is summed up over all calls. Not thread-safe:
+ * one instance per request.
+ */
+final class StageTimings {
+
+    private final Map<PipelineStage, Long> nanos = new EnumMap<>(PipelineStage.class);
+
+    <T> T time(PipelineStage stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            add(stage, System.nanoTime() - start);
+        }
+    }
+
+    void add(PipelineStage stage, long elapsedNanos) {
+        nanos.merge(stage, elapsedNanos, Long::sum);
+    }
+
+    Map<PipelineStage, Long> asMap() {
+        return nanos;
+    }
+}
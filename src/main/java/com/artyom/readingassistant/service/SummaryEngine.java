@@ -28,15 +28,39 @@ public class SummaryEngine {
     public List<String> summarize(List<String> sentences) {
         if (sentences == null || sentences.isEmpty()) return List.of();
 
-        // 1) Normalize and filter, keep original index
+        // 1) Normalize, filter and score what does not depend on the neighbours
+        List<SentenceScore> prepared = new ArrayList<>(sentences.size());
+        for (String raw : sentences) {
+            prepared.add(prepare(raw));
+        }
+        return select(prepared);
+    }
+
+    /**
+     * Position-independent part of the scoring (normalization, noise filter, length and keyword score).
+     * The result depends only on the sentence itself, so callers may cache it between runs.
+     *
+     * @return prepared sentence or null if it is filtered out
+     */
+    public SentenceScore prepare(String raw) {
+        if (raw == null) return null;
+        String normalized = normalize(raw);
+        if (normalized.length() < MIN_LENGTH) return null;
+        if (isNoisy(normalized)) return null;
+        return new SentenceScore(raw, normalized, lengthScore(normalized) + keywordScore(normalized));
+    }
+
+    /**
+     * Pick the summary from prepared sentences. The list index is the sentence position in the
+     * document; null entries are sentences that were filtered out but still count for positions.
+     */
+    public List<String> select(List<SentenceScore> prepared) {
+        int total = prepared.size();
+
         List<Sentence> cleaned = new ArrayList<>();
-        for (int i = 0; i < sentences.size(); i++) {
-            String raw = sentences.get(i);
-            if (raw == null) continue;
-            String normalized = normalize(raw);
-            if (normalized.length() < MIN_LENGTH) continue;
-            if (isNoisy(normalized)) continue;
-            cleaned.add(new Sentence(i, raw, normalized));
+        for (int i = 0; i < total; i++) {
+            SentenceScore p = prepared.get(i);
+            if (p != null) cleaned.add(new Sentence(i, p.original, p.normalized));
         }
 
         if (cleaned.isEmpty()) return List.of();
@@ -49,10 +73,8 @@ public class SummaryEngine {
 
         // 3) Score each sentence
         for (Sentence s : cleaned) {
-            int score = 0;
-            score += lengthScore(s.normalized);
-            score += keywordScore(s.normalized);
-            score += positionScore(s.index, sentences.size());
+            int score = prepared.get(s.index).baseScore;
+            score += positionScore(s.index, total);
             score += freq.getOrDefault(s.normalized, 0) - 1; // bonus if repeated
             s.score = score;
         }
@@ -113,6 +135,21 @@ public class SummaryEngine {
         return 0;
     }
 
+    /**
+     * Cacheable per-sentence result of {@link #prepare(String)}.
+     */
+    public static final class SentenceScore {
+        final String original;
+        final String normalized;
+        final int baseScore; // length + keyword score
+
+        SentenceScore(String original, String normalized, int baseScore) {
+            this.original = original;
+            this.normalized = normalized;
+            this.baseScore = baseScore;
+        }
+    }
+
     // small helper class
     private static class Sentence {
         final int index;
@@ -0,0 +1,85 @@
+package com.artyom.readingassistant.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Appendable that cuts its input into Telegram-sized messages.
+ *
+ * At most one message worth of text is buffered. When the buffer is full, it is cut at the last
+ * blank line (paragraph) if that keeps at least half of the message, else at the last line break,
+ * else hard at the limit; the part before the cut goes to the sink, the rest stays for the next message. Call {@link #flush()} at the end.
+ */
+public final class TelegramMessageWriter implements Appendable {
+
+    // Telegram Bot API limit for one text message
+    public static final int MAX_MESSAGE_CHARS = 4096;
+
+    private final Consumer<String> sink;
+    private final int limit;
+    private final StringBuilder buffer;
+
+    public TelegramMessageWriter(Consumer<String> sink) {
+        this(sink, MAX_MESSAGE_CHARS);
+    }
+
+    TelegramMessageWriter(Consumer<String> sink, int limit) {
+        this.sink = sink;
+        this.limit = limit;
+        this.buffer = new StringBuilder(limit);
+    }
+
+    @Override
+    public TelegramMessageWriter append(CharSequence csq) {
+        CharSequence s = csq == null ? "null" : csq;
+        return append(s, 0, s.length());
+    }
+
+    @Override
+    public TelegramMessageWriter append(CharSequence csq, int start, int end) {
+        CharSequence s = csq == null ? "null" : csq;
+        int i = start;
+        while (i < end) {
+            int n = Math.min(end - i, limit - buffer.length());
+            buffer.append(s, i, i + n);
+            i += n;
+            if (buffer.length() >= limit) emit();
+        }
+        return this;
+    }
+
+    @Override
+    public TelegramMessageWriter append(char c) {
+        buffer.append(c);
+        if (buffer.length() >= limit) emit();
+        return this;
+    }
+
+    /**
+     * Send whatever is buffered as the last message.
+     */
+    public void flush() {
+        send(buffer.length());
+        buffer.setLength(0);
+    }
+
+    // Buffer is full: send up to the best boundary, keep the remainder
+    private void emit() {
+        int cut = buffer.lastIndexOf("\n\n");
+        if (cut < limit / 2) cut = buffer.lastIndexOf("\n");
+        if (cut <= 0) {
+            cut = limit;
+            if (Character.isHighSurrogate(buffer.charAt(cut - 1))) cut--; // do not split a surrogate pair
+        }
+        send(cut);
+
+        int rest = cut;
+        while (rest < buffer.length() && buffer.charAt(rest) == '\n') rest++;
+        buffer.delete(0, rest);
+    }
+
+    private void send(int end) {
+        int to = end;
+        while (to > 0 && Character.isWhitespace(buffer.charAt(to - 1))) to--;
+        if (to > 0) sink.accept(buffer.substring(0, to));
+    }
+}
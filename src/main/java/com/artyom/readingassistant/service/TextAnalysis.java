@@ -0,0 +1,19 @@
+package com.artyom.readingassistant.service;
+
+import java.util.List;
+
+/**
+ * Derived fragments of one article text, as produced by IncrementalAnalyzer and consumed by ReadingPipeline.
+ */
+final class TextAnalysis {
+
+    final List<String> summary;
+    final List<String> keyIdeas;
+    final List<String> actionItems;
+
+    TextAnalysis(List<String> summary, List<String> keyIdeas, List<String> actionItems) {
+        this.summary = summary;
+        this.keyIdeas = keyIdeas;
+        this.actionItems = actionItems;
+    }
+}
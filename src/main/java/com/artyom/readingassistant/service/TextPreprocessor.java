@@ -24,7 +24,7 @@ public class TextPreprocessor {
         List<String> result = new ArrayList<>();
         for (String s : sentences) {
             String trimmed = s.trim();
-            if (trimmed.length() >= 30 && trimmed.split("\\s+").length >= 3) {
+            if (isMeaningful(trimmed)) {
                 result.add(trimmed);
             }
         }
@@ -32,11 +32,39 @@ public class TextPreprocessor {
         return result;
     }
 
+    /**
+     * Фильтр коротких предложений: не меньше 30 символов и 3 слов.
+     * Предложение должно быть уже обрезано и с нормализованными пробелами.
+     */
+    private boolean isMeaningful(String sentence) {
+        if (sentence.length() < 30) return false;
+        int words = 1;
+        for (int i = 0; i < sentence.length() && words < 3; i++) {
+            if (isSpace(sentence.charAt(i))) words++;
+        }
+        return words >= 3;
+    }
+
+    // Один проход: серии пробельных символов (включая переводы строк) -> один пробел
     private String normalize(String text) {
-        return text
-                .replaceAll("\\s+", " ")
-                .replaceAll("\n", " ")
-                .trim();
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSpace(c)) {
+                pendingSpace = true;
+            } else {
+                if (pendingSpace && sb.length() > 0) sb.append(' ');
+                pendingSpace = false;
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // то же множество, что и \s в regex без UNICODE_CHARACTER_CLASS
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     private List<String> splitIntoSentences(String text) {
@@ -0,0 +1,123 @@
+package com.artyom.readingassistant.jobs;
+
+import com.artyom.readingassistant.model.ArticleResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void replaysAppendedEntriesInOrder() throws Exception {
+        Path file = dir.resolve("journal.ndjson");
+        try (JobJournal journal = new JobJournal(file, mapper)) {
+            journal.replay(e -> fail("empty journal"));
+            journal.append(JournalEntry.job("j1", 1L, List.of("https://a", "https://b")));
+            journal.append(JournalEntry.done("j1", 0, result("https://a")));
+            journal.append(JournalEntry.failed("j1", 1, "boom"));
+        }
+
+        List<JournalEntry> entries = replay(file);
+        assertEquals(3, entries.size());
+        assertEquals(JournalEntry.Type.JOB, entries.get(0).getType());
+        assertEquals(List.of("https://a", "https://b"), entries.get(0).getUrls());
+        assertEquals(JournalEntry.Type.DONE, entries.get(1).getType());
+        assertEquals(List.of("summary of https://a"), entries.get(1).getResult().getSummary());
+        assertNull(entries.get(1).getResult().getText()); // the article text is never journaled
+        assertEquals(JournalEntry.Type.FAILED, entries.get(2).getType());
+        assertEquals("boom", entries.get(2).getError());
+    }
+
+    @Test
+    void tornTailIsDroppedAndCutOff() throws Exception {
+        Path file = dir.resolve("journal.ndjson");
+        try (JobJournal journal = new JobJournal(file, mapper)) {
+            journal.append(JournalEntry.job("j1", 1L, List.of("https://a")));
+        }
+        long complete = Files.size(file);
+        Files.write(file, "{\"type\":\"DONE\",\"id\":\"j1\",\"ind".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        try (JobJournal journal = new JobJournal(file, mapper)) {
+            List<JournalEntry> entries = new ArrayList<>();
+            journal.replay(entries::add);
+            assertEquals(1, entries.size());
+            assertEquals(complete, Files.size(file));
+
+            journal.append(JournalEntry.failed("j1", 0, "boom"));
+        }
+
+        List<JournalEntry> entries = replay(file);
+        assertEquals(2, entries.size());
+        assertEquals(JournalEntry.Type.FAILED, entries.get(1).getType());
+    }
+
+    @Test
+    void appendAfterUnterminatedLineStartsNewLine() throws Exception {
+        // no replay first: the writer itself must not glue its entry onto the cut-off line
+        Path file = dir.resolve("journal.ndjson");
+        Files.writeString(file, "{\"type\":\"JOB\",\"id\":\"j1\",\"urls\":[\"https://a\"]}\n{\"type\":\"DO");
+        try (JobJournal journal = new JobJournal(file, mapper)) {
+            journal.append(JournalEntry.failed("j1", 0, "boom"));
+        }
+
+        List<JournalEntry> entries = replay(file);
+        assertEquals(2, entries.size()); // the unreadable line is skipped
+        assertEquals(JournalEntry.Type.JOB, entries.get(0).getType());
+        assertEquals(JournalEntry.Type.FAILED, entries.get(1).getType());
+    }
+
+    @Test
+    void compactsOnlyAfterDoublingPastMinimum() throws Exception {
+        Path file = dir.resolve("journal.ndjson");
+        List<JournalEntry> live = List.of(JournalEntry.job("j2", 2L, List.of("https://b")));
+        try (JobJournal journal = new JobJournal(file, mapper)) {
+            journal.replay(e -> { });
+            journal.rewrite(live);
+            long compacted = Files.size(file);
+
+            for (int i = 0; i < 3; i++) journal.append(JournalEntry.failed("j1", 0, "boom " + i));
+            assertFalse(journal.compactIfGrown(Long.MAX_VALUE, () -> live), "below the minimum size");
+            assertTrue(Files.size(file) > 2 * compacted);
+
+            assertTrue(journal.compactIfGrown(0, () -> live));
+            assertEquals(compacted, Files.size(file));
+            assertFalse(journal.compactIfGrown(0, () -> live), "has not grown since");
+
+            journal.append(JournalEntry.failed("j2", 0, "boom"));
+        }
+
+        List<JournalEntry> entries = replay(file);
+        assertEquals(2, entries.size());
+        assertEquals("j2", entries.get(0).getId());
+        assertEquals(JournalEntry.Type.FAILED, entries.get(1).getType());
+        assertFalse(Files.exists(dir.resolve("journal.ndjson.tmp")));
+    }
+
+    private List<JournalEntry> replay(Path file) throws Exception {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (JobJournal journal = new JobJournal(file, mapper)) {
+            journal.replay(entries::add);
+        }
+        return entries;
+    }
+
+    static ArticleResult result(String url) {
+        return new ArticleResult(url, "Title", "Full article text of " + url + ".",
+                List.of("summary of " + url), List.of("idea"), List.of("do it"));
+    }
+}
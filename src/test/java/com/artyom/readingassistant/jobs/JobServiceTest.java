@@ -0,0 +1,74 @@
+package com.artyom.readingassistant.jobs;
+
+import com.artyom.readingassistant.model.JobItemStatus;
+import com.artyom.readingassistant.model.JobState;
+import com.artyom.readingassistant.model.JobStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void recoversFinishedItemsWithSamePayloadAsBeforeRestart() throws Exception {
+        List<String> urls = List.of("https://a", "https://b");
+        Job before = new Job("j1", 1L, urls);
+        before.done(0, JobJournalTest.result("https://a"));
+        before.failed(1, "boom");
+
+        try (JobJournal journal = new JobJournal(dir.resolve("journal.ndjson"), mapper)) {
+            for (JournalEntry e : before.toJournal()) journal.append(e);
+        }
+
+        // every item is finished, so nothing is resumed and no pipeline is needed
+        JobService service = new JobService(null, mapper, dir.toString());
+        try {
+            JobStatus after = service.status("j1").orElseThrow();
+            assertEquals(JobState.DONE, after.getState());
+            assertEquals(1, after.getCompleted());
+            assertEquals(1, after.getFailed());
+
+            JobItemStatus done = after.getItems().get(0);
+            assertEquals(JobState.DONE, done.getState());
+            assertEquals(mapper.writeValueAsString(before.toStatus().getItems().get(0).getResult()),
+                    mapper.writeValueAsString(done.getResult()));
+            assertFalse(mapper.writeValueAsString(done.getResult()).contains("Full article text"));
+            assertEquals("boom", after.getItems().get(1).getError());
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    void recoveryCompactsJournal() throws Exception {
+        Path file = dir.resolve("journal.ndjson");
+        try (JobJournal journal = new JobJournal(file, mapper)) {
+            journal.append(JournalEntry.job("j1", 1L, List.of("https://a")));
+            journal.append(JournalEntry.job("j1", 1L, List.of("https://a"))); // journaled twice
+            journal.append(JournalEntry.failed("j1", 0, "first"));
+            journal.append(JournalEntry.failed("j1", 0, "second"));
+            journal.append(JournalEntry.failed("unknown", 0, "orphan"));
+        }
+
+        new JobService(null, mapper, dir.toString()).close();
+
+        List<JournalEntry> entries = new ArrayList<>();
+        try (JobJournal journal = new JobJournal(file, mapper)) {
+            journal.replay(entries::add);
+        }
+        assertEquals(2, entries.size());
+        assertEquals(JournalEntry.Type.JOB, entries.get(0).getType());
+        assertEquals("second", entries.get(1).getError());
+    }
+}
@@ -0,0 +1,143 @@
+package com.artyom.readingassistant.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Open-loop driver: requests are started on a fixed schedule regardless of how long earlier ones
+ * take, and latency is measured from the scheduled start. A slow service therefore shows up as
+ * growing latency instead of silently lowering the offered load (no coordinated omission).
+ * Owns its HttpClient and the client's threads; close it when done.
+ */
+class LoadDriver implements AutoCloseable {
+
+    /**
+     * Outcome of one request.
+     */
+    static final class Sample {
+        final String endpoint;
+        final long scheduledAtNanos;
+        final long latencyNanos;
+        final int status; // -1 = client side error/timeout
+
+        Sample(String endpoint, long scheduledAtNanos, long latencyNanos, int status) {
+            this.endpoint = endpoint;
+            this.scheduledAtNanos = scheduledAtNanos;
+            this.latencyNanos = latencyNanos;
+            this.status = status;
+        }
+    }
+
+    private final LoadTestConfig config;
+    private final String serviceBaseUrl;
+    private final StubOriginServer origin;
+    private final ExecutorService clientExecutor;
+    private final HttpClient client;
+
+    LoadDriver(LoadTestConfig config, String serviceBaseUrl, StubOriginServer origin) {
+        this.config = config;
+        this.serviceBaseUrl = serviceBaseUrl;
+        this.origin = origin;
+        this.clientExecutor = Executors.newCachedThreadPool();
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+    }
+
+    /**
+     * Run for warmup + duration seconds; samples scheduled during warmup are discarded.
+     *
+     * @param onWarmupEnd called once when the measured window starts
+     */
+    List<Sample> run(Runnable onWarmupEnd) throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        List<CompletableFuture<Sample>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+        long warmupEnd = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        int totalSeconds = config.warmupSeconds + config.durationSeconds;
+
+        scheduler.schedule(onWarmupEnd, warmupEnd - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, config.ratePerSecond);
+        long count = (long) config.ratePerSecond * totalSeconds;
+        for (long i = 0; i < count; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            int article = (int) (i % config.articles);
+            CompletableFuture<Sample> f = new CompletableFuture<>();
+            inFlight.add(f);
+            scheduler.schedule(() -> analyze(scheduledAt, article).whenComplete((s, e) -> f.complete(s)),
+                    scheduledAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        if (config.jobsPerMinute > 0) {
+            long jobInterval = TimeUnit.MINUTES.toNanos(1) / config.jobsPerMinute;
+            long jobs = TimeUnit.SECONDS.toNanos(totalSeconds) / jobInterval;
+            for (long j = 0; j < jobs; j++) {
+                long scheduledAt = start + j * jobInterval;
+                int first = (int) ((j * config.urlsPerJob) % config.articles);
+                CompletableFuture<Sample> f = new CompletableFuture<>();
+                inFlight.add(f);
+                scheduler.schedule(() -> submitJob(scheduledAt, first).whenComplete((s, e) -> f.complete(s)),
+                        scheduledAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        List<Sample> samples = new ArrayList<>();
+        for (CompletableFuture<Sample> f : inFlight) {
+            try {
+                Sample s = f.get(totalSeconds + config.requestTimeoutSeconds + 10L, TimeUnit.SECONDS);
+                if (s != null && s.scheduledAtNanos >= warmupEnd) samples.add(s);
+            } catch (ExecutionException | TimeoutException e) {
+                // counted as missing; should not happen as every request has its own timeout
+            }
+        }
+        scheduler.shutdownNow();
+        return samples;
+    }
+
+    private CompletableFuture<Sample> analyze(long scheduledAt, int article) {
+        String url = serviceBaseUrl + "/api/analyze?fields=title,summary&url="
+                + URLEncoder.encode(origin.articleUrl(article), StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(config.requestTimeoutSeconds))
+                .GET()
+                .build();
+        return send("analyze", scheduledAt, request);
+    }
+
+    private CompletableFuture<Sample> submitJob(long scheduledAt, int firstArticle) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < config.urlsPerJob; i++) {
+            if (i > 0) body.append(',');
+            body.append('"').append(origin.articleUrl((firstArticle + i) % config.articles)).append('"');
+        }
+        body.append(']');
+        HttpRequest request = HttpRequest.newBuilder(URI.create(serviceBaseUrl + "/api/jobs"))
+                .timeout(Duration.ofSeconds(config.requestTimeoutSeconds))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return send("jobs", scheduledAt, request);
+    }
+
+    private CompletableFuture<Sample> send(String endpoint, long scheduledAt, HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> new Sample(endpoint, scheduledAt, System.nanoTime() - scheduledAt,
+                        error != null ? -1 : response.statusCode()));
+    }
+
+    @Override
+    public void close() {
+        client.shutdownNow();
+        clientExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,125 @@
+package com.artyom.readingassistant.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Turns driver samples into a JSON report (throughput, latency percentiles, error rates, GC).
+ * Reports are written with stable key order so two runs can be diffed directly.
+ *
+ * Note: service and driver share one JVM, so GC numbers include the driver's own allocations.
+ */
+class LoadReport {
+
+    private final Map<String, Long[]> gcBefore = new LinkedHashMap<>();
+
+    // GC counters at the start of the measured window
+    void markGcBaseline() {
+        gcBefore.clear();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcBefore.put(gc.getName(), new Long[]{gc.getCollectionCount(), gc.getCollectionTime()});
+        }
+    }
+
+    Map<String, Object> build(LoadTestConfig config, List<LoadDriver.Sample> samples) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("config", config.asMap());
+        report.put("environment", environment());
+
+        Map<String, List<LoadDriver.Sample>> byEndpoint = samples.stream()
+                .collect(Collectors.groupingBy(s -> s.endpoint, TreeMap::new, Collectors.toList()));
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        byEndpoint.forEach((name, list) -> endpoints.put(name, endpointStats(list, config.durationSeconds)));
+        report.put("endpoints", endpoints);
+        report.put("gc", gcStats());
+        return report;
+    }
+
+    Path write(Map<String, Object> report, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve("loadtest-report-" + Instant.now().toEpochMilli() + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        return file;
+    }
+
+    private static Map<String, Object> endpointStats(List<LoadDriver.Sample> samples, int durationSeconds) {
+        long[] latencies = samples.stream().mapToLong(s -> s.latencyNanos).sorted().toArray();
+        Map<Integer, Long> statuses = samples.stream()
+                .collect(Collectors.groupingBy(s -> s.status, TreeMap::new, Collectors.counting()));
+        long ok = samples.stream().filter(s -> s.status >= 200 && s.status < 300).count();
+        long shed = statuses.getOrDefault(503, 0L);
+        long errors = samples.size() - ok - shed;
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("requests", samples.size());
+        m.put("throughputPerSecond", round((double) ok / durationSeconds));
+        m.put("successRate", rate(ok, samples.size()));
+        m.put("shedRate", rate(shed, samples.size()));
+        m.put("errorRate", rate(errors, samples.size()));
+        m.put("statuses", statuses);
+
+        Map<String, Object> lat = new LinkedHashMap<>();
+        lat.put("p50", millis(percentile(latencies, 0.50)));
+        lat.put("p90", millis(percentile(latencies, 0.90)));
+        lat.put("p99", millis(percentile(latencies, 0.99)));
+        lat.put("p999", millis(percentile(latencies, 0.999)));
+        lat.put("max", millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]));
+        m.put("latencyMs", lat);
+        return m;
+    }
+
+    private Map<String, Object> gcStats() {
+        Map<String, Object> gc = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            Long[] before = gcBefore.getOrDefault(bean.getName(), new Long[]{0L, 0L});
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("collections", bean.getCollectionCount() - before[0]);
+            m.put("timeMs", bean.getCollectionTime() - before[1]);
+            gc.put(bean.getName(), m);
+        }
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        gc.put("heapUsedMb", heap.getUsed() / (1024 * 1024));
+        gc.put("heapCommittedMb", heap.getCommitted() / (1024 * 1024));
+        return gc;
+    }
+
+    private static Map<String, Object> environment() {
+        Map<String, Object> env = new LinkedHashMap<>();
+        env.put("java", System.getProperty("java.version"));
+        env.put("vm", System.getProperty("java.vm.name"));
+        env.put("processors", Runtime.getRuntime().availableProcessors());
+        env.put("maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        env.put("gcs", ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .map(GarbageCollectorMXBean::getName).collect(Collectors.toList()));
+        return env;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double rate(long part, long total) {
+        return total == 0 ? 0 : round((double) part / total);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,56 @@
+package com.artyom.readingassistant.loadtest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * End-to-end load test: real service on a random port, a local stub origin, fixed arrival rate.
+ * Not part of the regular build; run with
+ * <pre>
+ *   mvn -Ploadtest test -Dloadtest.rate=50 -Dloadtest.durationSeconds=60
+ * </pre>
+ * The JSON report is written to target/loadtest/ (see LoadTestConfig for all parameters).
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "reading.index.dir=target/loadtest/index",
+        "reading.jobs.dir=target/loadtest/jobs",
+        "reading.extraction.rules-file=target/loadtest/extraction-rules.json"
+})
+class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void fixedArrivalRate() throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+
+        try (StubOriginServer origin = new StubOriginServer(config);
+             LoadDriver driver = new LoadDriver(config, "http://127.0.0.1:" + port, origin)) {
+            LoadReport report = new LoadReport();
+
+            // warmup samples are dropped by the driver, GC is counted from the end of warmup too
+            List<LoadDriver.Sample> samples = driver.run(report::markGcBaseline);
+
+            Map<String, Object> result = report.build(config, samples);
+            Path file = report.write(result, Path.of("target", "loadtest"));
+            log.info("Load test report: {}", file.toAbsolutePath());
+            log.info("Endpoints: {}", result.get("endpoints"));
+
+            assertFalse(samples.isEmpty(), "no requests completed");
+        }
+    }
+}
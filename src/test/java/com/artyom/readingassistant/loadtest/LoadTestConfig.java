@@ -0,0 +1,41 @@
+package com.artyom.readingassistant.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from system properties (e.g. -Dloadtest.rate=50), with defaults
+ * small enough to finish in well under a minute.
+ */
+class LoadTestConfig {
+
+    final long seed = Long.getLong("loadtest.seed", 42);
+    final int ratePerSecond = Integer.getInteger("loadtest.rate", 20);
+    final int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 30);
+    final int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 5);
+    // more than the 256 URLs IncrementalAnalyzer keeps, so requests are not answered from its cache
+    final int articles = Integer.getInteger("loadtest.articles", 2000);
+    final int paragraphsPerArticle = Integer.getInteger("loadtest.paragraphs", 40);
+    final int originLatencyMs = Integer.getInteger("loadtest.originLatencyMs", 50);
+    final int originJitterMs = Integer.getInteger("loadtest.originJitterMs", 100);
+    final double originErrorRate = Double.parseDouble(System.getProperty("loadtest.originErrorRate", "0.02"));
+    final int jobsPerMinute = Integer.getInteger("loadtest.jobsPerMinute", 0);
+    final int urlsPerJob = Integer.getInteger("loadtest.urlsPerJob", 10);
+    final int requestTimeoutSeconds = Integer.getInteger("loadtest.requestTimeoutSeconds", 30);
+
+    Map<String, Object> asMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("seed", seed);
+        m.put("ratePerSecond", ratePerSecond);
+        m.put("durationSeconds", durationSeconds);
+        m.put("warmupSeconds", warmupSeconds);
+        m.put("articles", articles);
+        m.put("paragraphsPerArticle", paragraphsPerArticle);
+        m.put("originLatencyMs", originLatencyMs);
+        m.put("originJitterMs", originJitterMs);
+        m.put("originErrorRate", originErrorRate);
+        m.put("jobsPerMinute", jobsPerMinute);
+        m.put("urlsPerJob", urlsPerJob);
+        return m;
+    }
+}
@@ -0,0 +1,135 @@
+package com.artyom.readingassistant.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded stand-in for article origins: serves generated fixture articles at /article/{n}
+ * with configurable latency, size and error rate. Latency jitter and errors come from a seeded
+ * Random per article, so the same configuration always produces the same origin behaviour.
+ *
+ * A request for an article that is still being served is taken for a hedged duplicate of it: it
+ * keeps the request number of the one in flight and draws from its own stream, so hedging does not
+ * shift the schedule of the logical requests that follow.
+ */
+class StubOriginServer implements AutoCloseable {
+
+    private static final String[] WORDS = {
+            "система", "данные", "результат", "важно", "итог", "сервер", "запрос", "модуль",
+            "нужно", "следует", "архитектура", "кэш", "задержка", "поток", "индекс", "вывод"
+    };
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final LoadTestConfig config;
+    private final Map<Integer, ArticleRequests> requests = new ConcurrentHashMap<>();
+
+    StubOriginServer(LoadTestConfig config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/article/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String articleUrl(int n) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/article/" + n;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int n;
+            try {
+                n = Integer.parseInt(exchange.getRequestURI().getPath().substring("/article/".length()));
+            } catch (NumberFormatException e) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            ArticleRequests article = requests.computeIfAbsent(n, k -> new ArticleRequests());
+            long key = article.begin();
+            try {
+                serve(exchange, n, key);
+            } finally {
+                article.end();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serve(HttpExchange exchange, int n, long key) throws IOException, InterruptedException {
+        // per request randomness, reproducible for the same article, request number and attempt
+        Random random = new Random(config.seed * 31 + n * 1_000_003L + key);
+
+        long latency = config.originLatencyMs + (config.originJitterMs > 0 ? random.nextInt(config.originJitterMs) : 0);
+        Thread.sleep(latency);
+
+        if (random.nextDouble() < config.originErrorRate) {
+            exchange.sendResponseHeaders(500, -1);
+            return;
+        }
+
+        byte[] body = article(n).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Deterministic article text: same n, same content
+    private String article(int n) {
+        Random random = new Random(config.seed ^ n);
+        StringBuilder sb = new StringBuilder(config.paragraphsPerArticle * 200);
+        sb.append("<html><head><title>Fixture article ").append(n).append("</title></head><body>");
+        sb.append("<nav><p>Главная | Статьи | Подписка на рассылку | Контакты</p></nav><article>");
+        for (int p = 0; p < config.paragraphsPerArticle; p++) {
+            sb.append(p % 10 == 0 ? "<h2>" : "<p>");
+            int sentences = 2 + random.nextInt(4);
+            for (int s = 0; s < sentences; s++) {
+                int words = 6 + random.nextInt(14);
+                for (int w = 0; w < words; w++) {
+                    sb.append(WORDS[random.nextInt(WORDS.length)]).append(w + 1 < words ? " " : "");
+                }
+                sb.append(". ");
+            }
+            sb.append(p % 10 == 0 ? "</h2>" : "</p>");
+        }
+        sb.append("</article><footer><p>© Fixture origin. Все права защищены, перепечатка запрещена.</p></footer>");
+        sb.append("</body></html>");
+        return sb.toString();
+    }
+
+    // Request numbering of one article; duplicates of the request in flight share its number
+    private static final class ArticleRequests {
+        private int next;
+        private int current;
+        private int inFlight;
+
+        // key of (request number, attempt), the first attempt keeps the plain request number
+        synchronized long begin() {
+            if (inFlight == 0) current = next++;
+            return current + 1_009L * inFlight++;
+        }
+
+        synchronized void end() {
+            inFlight--;
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
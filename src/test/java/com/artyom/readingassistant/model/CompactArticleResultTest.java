@@ -0,0 +1,91 @@
+package com.artyom.readingassistant.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactArticleResultTest {
+
+    private static final String TEXT = "Первое предложение статьи. Нужно проверить гипотезу. "
+            + "Главная мысль: измерять до и после. Нужно проверить гипотезу.";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void serializesLikeArticleResult() throws Exception {
+        ArticleResult result = result();
+        result.setSectionSummaries(List.of(new SectionSummary(null, List.of("Первое предложение статьи.")),
+                new SectionSummary("Итоги", List.of("Главная мысль: измерять до и после."))));
+
+        String expected = mapper.writeValueAsString(result);
+        assertEquals(expected, mapper.writeValueAsString(CompactArticleResult.of(result)));
+        assertEquals(expected, mapper.writeValueAsString(CompactArticleResult.view(result)));
+    }
+
+    @Test
+    void leavesOutNullSectionSummariesAndKeepsNullLists() throws Exception {
+        ArticleResult result = new ArticleResult("https://example.com/a", null, null, null, List.of(), null);
+
+        String expected = mapper.writeValueAsString(result);
+        assertFalse(expected.contains("sectionSummaries"));
+        assertEquals(expected, mapper.writeValueAsString(CompactArticleResult.of(result)));
+        assertEquals(expected, mapper.writeValueAsString(CompactArticleResult.view(result)));
+    }
+
+    @Test
+    void fragmentsRoundTripThroughSpansAndExtras() {
+        ArticleResult result = result();
+        CompactArticleResult compact = CompactArticleResult.of(result);
+
+        // the repeated sentence is found again after the first match, the normalized one is an extra
+        assertArrayEquals(new int[]{27, 52, 89, 114}, compact.actionItems);
+        assertEquals(1, compact.extras.length);
+        assertTrue(compact.keyIdeas[2] < 0);
+
+        assertFragmentsEqual(result, compact.toArticleResult());
+        assertFragmentsEqual(result, CompactArticleResult.view(result).toArticleResult());
+    }
+
+    @Test
+    void projectionWritesOnlySelectedFieldsInOrder() throws Exception {
+        CompactArticleResult compact = CompactArticleResult.of(result());
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(
+                compact.withFields(ArticleField.parse("keyIdeas, title"))));
+        assertEquals(List.of("title", "keyIdeas"), names(json));
+        assertEquals("Заголовок", json.get("title").asText());
+        assertEquals("Главная мысль:  измерять до и после.", json.get("keyIdeas").get(1).asText());
+
+        assertEquals("{}", mapper.writeValueAsString(compact.withFields(ArticleField.parse("sectionSummaries"))));
+        assertEquals(7, ArticleField.parse(" ").size());
+        assertThrows(IllegalArgumentException.class, () -> ArticleField.parse("title,body"));
+    }
+
+    private static ArticleResult result() {
+        return new ArticleResult("https://example.com/a", "Заголовок", TEXT,
+                List.of("Первое предложение статьи."),
+                List.of("Главная мысль: измерять до и после.", "Главная мысль:  измерять до и после."),
+                List.of("Нужно проверить гипотезу.", "Нужно проверить гипотезу."));
+    }
+
+    private static void assertFragmentsEqual(ArticleResult expected, ArticleResult actual) {
+        assertEquals(expected.getUrl(), actual.getUrl());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getText(), actual.getText());
+        assertEquals(expected.getSummary(), actual.getSummary());
+        assertEquals(expected.getKeyIdeas(), actual.getKeyIdeas());
+        assertEquals(expected.getActionItems(), actual.getActionItems());
+    }
+
+    private static List<String> names(JsonNode json) {
+        List<String> names = new ArrayList<>();
+        for (Iterator<String> it = json.fieldNames(); it.hasNext(); ) names.add(it.next());
+        return names;
+    }
+}
@@ -0,0 +1,198 @@
+package com.artyom.readingassistant.replay;
+
+import com.artyom.readingassistant.search.ArticleIndex;
+import com.artyom.readingassistant.service.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorpusReplayerTest {
+
+    private static final String PARAGRAPH = "Главное в этой статье: результаты измерений нужно проверять "
+            + "на реальных данных, а не на синтетических примерах, иначе выводы будут неверными. ";
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private ArticleFetcher fetcher;
+    private ArticleIndex index;
+    private SectionSummarizer sectionSummarizer;
+    private CorpusReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        TextPreprocessor preprocessor = new TextPreprocessor();
+        SummaryEngine summaryEngine = new SummaryEngine();
+        fetcher = new ArticleFetcher(new HostLatencyTracker(),
+                new ExtractionRuleCache(dir.resolve("rules.json").toString(), mapper), new BoilerplateFilter());
+        index = new ArticleIndex(dir.resolve("index").toString());
+        sectionSummarizer = new SectionSummarizer(preprocessor, summaryEngine);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReadingPipeline pipeline = new ReadingPipeline(fetcher,
+                new IncrementalAnalyzer(preprocessor, summaryEngine, new KeyIdeasExtractor(), new ActionItemsExtractor()),
+                sectionSummarizer, index, new AdmissionControl(registry), registry);
+        replayer = new CorpusReplayer(fetcher, pipeline, mapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+        sectionSummarizer.close();
+        fetcher.close();
+    }
+
+    @Test
+    void replaysHtmlFilesAndWarcRecordsInInputOrder() throws Exception {
+        Path corpus = Files.createDirectories(dir.resolve("corpus"));
+        Files.writeString(corpus.resolve("a.html"), page("First", "<link rel=\"canonical\" href=\"https://example.com/a\">"));
+        Files.writeString(corpus.resolve("b.htm"), page("Second", ""));
+        Files.write(corpus.resolve("c.warc"), warc(
+                record("warcinfo", null, "application/warc-fields", "software: test\r\n"),
+                record("request", "https://example.com/c1", "application/http; msgtype=request",
+                        "GET /c1 HTTP/1.1\r\nHost: example.com\r\n\r\n"),
+                record("response", "https://example.com/c1", "application/http; msgtype=response", httpResponse(page("Third", ""))),
+                record("response", "https://example.com/c2", "application/http; msgtype=response", httpResponse(page("Fourth", "")))));
+        Files.writeString(corpus.resolve("notes.txt"), "not a page");
+
+        Path output = dir.resolve("out.ndjson");
+        CorpusReplayer.Stats stats = replayer.replay(corpus, output, 4);
+
+        assertEquals(4, stats.processed);
+        assertEquals(0, stats.failed);
+
+        List<JsonNode> lines = readLines(output);
+        assertEquals(4, lines.size());
+        assertEquals("https://example.com/a", lines.get(0).get("url").asText());
+        assertEquals(corpus.resolve("b.htm").toUri().toString(), lines.get(1).get("url").asText());
+        assertEquals("https://example.com/c1", lines.get(2).get("url").asText());
+        assertEquals("https://example.com/c2", lines.get(3).get("url").asText());
+
+        List<String> titles = new ArrayList<>();
+        for (JsonNode line : lines) {
+            titles.add(line.get("title").asText());
+            assertTrue(line.get("text").asText().contains("реальных данных"), "text extracted from " + line.get("url"));
+            assertFalse(line.get("summary").isEmpty(), "summary for " + line.get("url"));
+        }
+        assertEquals(List.of("First", "Second", "Third", "Fourth"), titles);
+    }
+
+    @Test
+    void readsCompressedWarcAndGzipContentEncoding() throws Exception {
+        Path corpus = Files.createDirectories(dir.resolve("corpus"));
+        // one gzip member per record, as crawlers write them
+        Files.write(corpus.resolve("d.warc.gz"), warc(
+                gzip(record("warcinfo", null, "application/warc-fields", "software: test\r\n")),
+                gzip(record("response", "https://example.com/d1", "application/http; msgtype=response",
+                        httpResponse(page("Plain", "")))),
+                gzip(record("response", "https://example.com/d2", "application/http; msgtype=response",
+                        encodedResponse("gzip", gzip(page("Encoded", "").getBytes(StandardCharsets.UTF_8))))),
+                gzip(record("response", "https://example.com/d3", "application/http; msgtype=response",
+                        encodedResponse("br", new byte[]{1, 2, 3})))));
+
+        Path output = dir.resolve("out.ndjson");
+        CorpusReplayer.Stats stats = replayer.replay(corpus, output, 2);
+
+        assertEquals(2, stats.processed);
+        assertEquals(0, stats.failed);
+        List<JsonNode> lines = readLines(output);
+        assertEquals("https://example.com/d1", lines.get(0).get("url").asText());
+        assertEquals("Plain", lines.get(0).get("title").asText());
+        assertEquals("https://example.com/d2", lines.get(1).get("url").asText());
+        assertEquals("Encoded", lines.get(1).get("title").asText());
+        assertTrue(lines.get(1).get("text").asText().contains("реальных данных"));
+    }
+
+    @Test
+    void repeatedRunsProduceIdenticalOutput() throws Exception {
+        Path corpus = Files.createDirectories(dir.resolve("corpus"));
+        for (int i = 0; i < 12; i++) {
+            Files.writeString(corpus.resolve(String.format("page-%02d.html", i)), page("Page " + i, ""));
+        }
+
+        Path first = dir.resolve("first.ndjson");
+        Path second = dir.resolve("second.ndjson");
+        replayer.replay(corpus, first, 4);
+        replayer.replay(corpus, second, 3);
+
+        assertEquals(12, Files.readAllLines(first).size());
+        assertEquals(Files.readString(first), Files.readString(second));
+    }
+
+    private List<JsonNode> readLines(Path file) throws Exception {
+        List<JsonNode> nodes = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) nodes.add(mapper.readTree(line));
+        return nodes;
+    }
+
+    // every paragraph mentions the title, so no page shares a paragraph with another (boilerplate filter)
+    private static String page(String title, String head) {
+        return "<html><head><title>" + title + "</title>" + head + "</head><body>"
+                + "<nav>Menu</nav><article><h1>" + title + "</h1>"
+                + "<p>" + title + ". " + PARAGRAPH + "</p><p>" + PARAGRAPH + "Второй абзац: " + title + ".</p>"
+                + "</article></body></html>";
+    }
+
+    private static String httpResponse(String html) {
+        return "HTTP/1.1 200 OK\r\nContent-Type: text/html; charset=UTF-8\r\nContent-Length: "
+                + html.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + html;
+    }
+
+    // HTTP response whose body is sent with the given Content-Encoding
+    private static byte[] encodedResponse(String encoding, byte[] encoded) {
+        byte[] head = ("HTTP/1.1 200 OK\r\nContent-Type: text/html; charset=UTF-8\r\nContent-Encoding: " + encoding
+                + "\r\nContent-Length: " + encoded.length + "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        return warc(head, encoded);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] record(String type, String uri, String contentType, String block) {
+        return record(type, uri, contentType, block.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] record(String type, String uri, String contentType, byte[] body) {
+        String header = "WARC/1.0\r\nWARC-Type: " + type + "\r\n"
+                + (uri != null ? "WARC-Target-URI: " + uri + "\r\n" : "")
+                + "Content-Type: " + contentType + "\r\nContent-Length: " + body.length + "\r\n\r\n";
+        byte[] head = header.getBytes(StandardCharsets.UTF_8);
+        byte[] out = new byte[head.length + body.length + 4];
+        System.arraycopy(head, 0, out, 0, head.length);
+        System.arraycopy(body, 0, out, head.length, body.length);
+        System.arraycopy("\r\n\r\n".getBytes(StandardCharsets.UTF_8), 0, out, head.length + body.length, 4);
+        return out;
+    }
+
+    private static byte[] warc(byte[]... records) {
+        int size = 0;
+        for (byte[] r : records) size += r.length;
+        byte[] out = new byte[size];
+        int pos = 0;
+        for (byte[] r : records) {
+            System.arraycopy(r, 0, out, pos, r.length);
+            pos += r.length;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,39 @@
+package com.artyom.readingassistant.search;
+
+import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.model.SearchHit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArticleIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void closeFlushesWithoutWaitingForDelayedFlush() {
+        ArticleIndex index = new ArticleIndex(dir.toString());
+        index.add(new ArticleResult("https://example.com/1", "Compressed postings", "Full text.",
+                List.of("Varint postings are small."), List.of(), List.of()));
+
+        long start = System.nanoTime();
+        index.close();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(millis < 2000, "close waited " + millis + " ms for the delayed flush");
+
+        ArticleIndex reopened = new ArticleIndex(dir.toString());
+        try {
+            List<SearchHit> hits = reopened.search("varint", 10);
+            assertEquals(1, hits.size());
+            assertEquals("https://example.com/1", hits.get(0).getUrl());
+        } finally {
+            reopened.close();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.artyom.readingassistant.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingsCodecTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void varintsRoundTripAcrossByteBoundaries() {
+        // deltas and frequencies around the 1/2/3/5-byte varint boundaries
+        int[] docIds = {0, 1, 127, 128, 255, 16_383, 16_384, 2_097_151, 2_097_152, Integer.MAX_VALUE};
+        int[] tfs = {1, 127, 128, 16_384, 1, 300, 2, Integer.MAX_VALUE, 5, 1};
+
+        PostingsCodec.Writer writer = new PostingsCodec.Writer();
+        for (int i = 0; i < docIds.length; i++) writer.add(docIds[i], tfs[i]);
+        assertEquals(docIds.length, writer.docFrequency());
+
+        List<int[]> decoded = new ArrayList<>();
+        PostingsCodec.decode(writer.toByteArray(), (docId, tf) -> decoded.add(new int[]{docId, tf}));
+
+        assertEquals(docIds.length, decoded.size());
+        for (int i = 0; i < docIds.length; i++) {
+            assertArrayEquals(new int[]{docIds[i], tfs[i]}, decoded.get(i));
+        }
+    }
+
+    @Test
+    void rejectsDocIdsOutOfOrder() {
+        PostingsCodec.Writer writer = new PostingsCodec.Writer();
+        writer.add(10, 1);
+        assertThrows(IllegalArgumentException.class, () -> writer.add(10, 1));
+        assertThrows(IllegalArgumentException.class, () -> writer.add(3, 1));
+    }
+
+    @Test
+    void segmentSurvivesWriteAndRead() throws IOException {
+        Path file = segment().write(dir);
+        IndexSegment read = IndexSegment.read(file);
+
+        assertEquals(7L, read.generation);
+        assertEquals(2, read.size());
+        IndexSegment.TermPostings postings = read.postings("postings");
+        assertNotNull(postings, "term lost in round trip");
+
+        List<Integer> docs = new ArrayList<>();
+        PostingsCodec.decode(postings.data, (docId, tf) -> docs.add(docId));
+        assertEquals(List.of(1, 2), docs);
+    }
+
+    @Test
+    void corruptedSegmentFailsChecksum() throws IOException {
+        Path file = segment().write(dir);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // flip one bit inside the checksummed body, in the last term's postings
+        bytes[bytes.length - 9] ^= 0x01;
+        Files.write(file, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> IndexSegment.read(file));
+        assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+    }
+
+    @Test
+    void truncatedSegmentIsRejected() throws IOException {
+        Path file = segment().write(dir);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(IOException.class, () -> IndexSegment.read(file));
+    }
+
+    @Test
+    void failedWriteLeavesNoTempFile() throws IOException {
+        // a non-empty directory where the segment should go makes the final move fail
+        Path target = dir.resolve(IndexSegment.fileName(7));
+        Files.createDirectories(target);
+        Files.writeString(target.resolve("blocker"), "x");
+
+        assertThrows(IOException.class, () -> segment().write(dir));
+        assertFalse(Files.exists(dir.resolve(IndexSegment.fileName(7) + ".tmp")));
+    }
+
+    private static IndexSegment segment() {
+        String[] first = {"Compressed postings", "Varint postings are small.", "", ""};
+        String[] second = {"Checksums", "Every segment ends with a CRC of its postings.", "", ""};
+        return IndexSegment.build(7, new long[0], List.of(
+                new IndexedDocument(1, "https://example.com/1", first, 6),
+                new IndexedDocument(2, "https://example.com/2", second, 9)));
+    }
+}
@@ -0,0 +1,91 @@
+package com.artyom.readingassistant.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void limitGrowsWhileLatencyStaysAtBaseline() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 10, 2, 40);
+
+        for (int round = 0; round < 5; round++) fullRound(limiter, BASELINE);
+        assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+
+        for (int round = 0; round < 50; round++) fullRound(limiter, BASELINE);
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 30, 6, 100);
+        fullRound(limiter, BASELINE);
+        int before = limiter.getLimit();
+
+        fullRound(limiter, 10 * BASELINE);
+        assertTrue(limiter.getLimit() < before, limiter.getLimit() + " < " + before);
+
+        // the baseline only moves 1/600 per sample, so a few rounds keep shrinking down to the minimum
+        for (int round = 0; round < 5; round++) fullRound(limiter, 10 * BASELINE);
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void samplesAtLowUtilizationDoNotMoveLimit() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 10, 2, 40);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(i % 2 == 0 ? BASELINE : 10 * BASELINE);
+        }
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void rejectsOverLimitAndCountsRejections() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getRejected());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(0);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getRejected());
+    }
+
+    @Test
+    void releaseWithoutSampleLeavesBaselineAlone() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 4, 1, 10);
+        assertEquals(1, limiter.retryAfterSeconds());
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.SECONDS.toNanos(3));
+        assertEquals(3, limiter.retryAfterSeconds());
+
+        for (int i = 0; i < 4; i++) limiter.tryAcquire();
+        for (int i = 0; i < 4; i++) limiter.release(0);
+        assertEquals(3, limiter.retryAfterSeconds());
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    // fills the limit, then releases every slot with the same latency
+    private static void fullRound(AdaptiveLimiter limiter, long rttNanos) {
+        int taken = 0;
+        while (limiter.getInFlight() < limiter.getLimit()) {
+            assertTrue(limiter.tryAcquire());
+            taken++;
+        }
+        for (int i = 0; i < taken; i++) limiter.release(rttNanos);
+    }
+}
@@ -0,0 +1,108 @@
+package com.artyom.readingassistant.service;
+
+import com.artyom.readingassistant.exception.OverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+    private static final int FETCH_LIMIT = 20;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final AdmissionControl admission = new AdmissionControl(registry, clock::get);
+    private final AdaptiveLimiter fetch = admission.limiter(AdmissionControl.Stage.FETCH);
+
+    @Test
+    void runMeasuresLatencyWithClock() {
+        String result = admission.run(AdmissionControl.Stage.FETCH, () -> {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(2500));
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(0, fetch.getInFlight());
+        assertEquals(3, fetch.retryAfterSeconds());
+    }
+
+    @Test
+    void slotIsReleasedWhenWorkThrows() {
+        assertThrows(IllegalStateException.class, () -> admission.run(AdmissionControl.Stage.FETCH, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(0, fetch.getInFlight());
+    }
+
+    @Test
+    void limitFollowsMeasuredLatency() {
+        for (int round = 0; round < 5; round++) fullRound(100);
+        int grown = fetch.getLimit();
+        assertTrue(grown > FETCH_LIMIT, "limit " + grown);
+
+        for (int round = 0; round < 5; round++) fullRound(1000);
+        assertTrue(fetch.getLimit() < grown, fetch.getLimit() + " < " + grown);
+    }
+
+    @Test
+    void cancelGivesSlotBackWithoutSample() {
+        AdmissionControl.Reservation reservation = admission.reserve(AdmissionControl.Stage.FETCH);
+        assertEquals(1, fetch.getInFlight());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        reservation.cancel();
+        reservation.cancel();
+        assertEquals(0, fetch.getInFlight());
+        assertEquals(1, fetch.retryAfterSeconds(), "no latency sample was taken");
+        assertThrows(IllegalStateException.class, () -> reservation.run(() -> "late"));
+        assertEquals(0, fetch.getInFlight());
+    }
+
+    @Test
+    void cancelAfterRunDoesNothing() {
+        AdmissionControl.Reservation reservation = admission.reserve(AdmissionControl.Stage.FETCH);
+        reservation.run(() -> "done");
+        reservation.cancel();
+        assertEquals(0, fetch.getInFlight());
+        assertNotNull(admission.reserve(AdmissionControl.Stage.FETCH));
+        assertEquals(1, fetch.getInFlight());
+    }
+
+    @Test
+    void rejectsOverLimitAndCountsPerStage() {
+        List<AdmissionControl.Reservation> held = new ArrayList<>();
+        for (int i = 0; i < FETCH_LIMIT; i++) held.add(admission.reserve(AdmissionControl.Stage.FETCH));
+
+        boolean[] ran = {false};
+        OverloadedException e = assertThrows(OverloadedException.class,
+                () -> admission.run(AdmissionControl.Stage.FETCH, () -> ran[0] = true));
+        assertFalse(ran[0]);
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(1, fetch.getRejected());
+        assertEquals(1.0, registry.counter("reading.admission.rejected", "stage", "fetch").count(), 0.0);
+        assertEquals(0.0, registry.counter("reading.admission.rejected", "stage", "analysis").count(), 0.0);
+
+        // the analysis limit is separate
+        assertEquals("analysed", admission.run(AdmissionControl.Stage.ANALYSIS, () -> "analysed"));
+
+        held.get(0).cancel();
+        assertNotNull(admission.reserve(AdmissionControl.Stage.FETCH));
+        assertEquals(1, fetch.getRejected());
+    }
+
+    // fills the fetch limit, then runs every reservation with the same latency
+    private void fullRound(long millis) {
+        List<AdmissionControl.Reservation> held = new ArrayList<>();
+        while (fetch.getInFlight() < fetch.getLimit()) held.add(admission.reserve(AdmissionControl.Stage.FETCH));
+        for (AdmissionControl.Reservation r : held) {
+            r.run(() -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis)));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.artyom.readingassistant.service;
+
+import com.artyom.readingassistant.model.ArticleResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArticleFetcherTest {
+
+    private static final String HOST = "127.0.0.1";
+    private static final String PARAGRAPH = "Главный вывод статьи: измерения нужно повторять на реальной нагрузке.";
+    private static final byte[] PAGE = ("<html><head><title>Article</title></head><body><article><p>" + PARAGRAPH
+            + "</p></article></body></html>").getBytes(StandardCharsets.UTF_8);
+    private static final long SLOW_MILLIS = 1500;
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private String base;
+    private HostLatencyTracker latencies;
+    private ExtractionRuleCache rules;
+    private ArticleFetcher fetcher;
+
+    // first request to /hedged is slow, every later one answers at once
+    private final AtomicInteger hedgedRequests = new AtomicInteger();
+    private final CompletableFuture<String> slowOutcome = new CompletableFuture<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(HOST, 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/hedged", x -> {
+            if (hedgedRequests.incrementAndGet() == 1) slowResponse(x);
+            else respond(x, "text/html; charset=UTF-8", PAGE);
+        });
+        server.createContext("/pdf", x -> respond(x, "application/pdf",
+                ("%PDF-1.4 " + PARAGRAPH).getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/xhtml", x -> respond(x, "application/xhtml+xml; charset=UTF-8", PAGE));
+        server.start();
+        base = "http://" + HOST + ":" + server.getAddress().getPort();
+        latencies = new HostLatencyTracker();
+        rules = new ExtractionRuleCache(dir.resolve("rules.json").toString(), new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (fetcher != null) fetcher.close();
+        rules.close();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void hedgedRequestWinsAndLoserIsAborted() throws Exception {
+        knownFastHost();
+        fetcher = fetcher(new RetryBudget(1, 10));
+
+        long start = System.nanoTime();
+        ArticleResult result = fetcher.fetch(base + "/hedged");
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(result.getText().contains("реальной нагрузке"));
+        assertTrue(millis < SLOW_MILLIS, "answered by the hedged request, took " + millis + " ms");
+        assertEquals(2, hedgedRequests.get());
+        // the primary is cancelled, so the server cannot finish writing it
+        assertTrue(slowOutcome.get(5, TimeUnit.SECONDS).startsWith("aborted"), slowOutcome.get());
+    }
+
+    @Test
+    void noHedgeWhenBudgetIsSpent() throws Exception {
+        knownFastHost();
+        fetcher = fetcher(new RetryBudget(0, 10));
+
+        long start = System.nanoTime();
+        ArticleResult result = fetcher.fetch(base + "/hedged");
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(result.getText().contains("реальной нагрузке"));
+        assertTrue(millis >= SLOW_MILLIS, "waited for the only request, took " + millis + " ms");
+        assertEquals(1, hedgedRequests.get());
+        assertEquals("completed", slowOutcome.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void noHedgeForUnknownHost() {
+        fetcher = fetcher(new RetryBudget(1, 10));
+
+        assertTrue(fetcher.fetch(base + "/hedged").getText().contains("реальной нагрузке"));
+        assertEquals(1, hedgedRequests.get());
+    }
+
+    @Test
+    void nonHtmlResponseGivesNoText() {
+        fetcher = fetcher(new RetryBudget(1, 10));
+
+        ArticleResult pdf = fetcher.fetch(base + "/pdf");
+        assertEquals("", pdf.getText());
+        assertEquals(base + "/pdf", pdf.getUrl());
+
+        assertTrue(fetcher.fetch(base + "/xhtml").getText().contains("реальной нагрузке"));
+    }
+
+    @Test
+    void learnedRuleThatLosesMostOfTheArticleIsReplaced() {
+        fetcher = fetcher(new RetryBudget(1, 10));
+        String url = "https://site.example/post";
+
+        fetcher.extract(url, oldLayout());
+        assertEquals("div[class*=\"post\"]", rules.selectorFor("site.example"));
+        for (int i = 0; i < 19; i++) assertTrue(fetcher.extract(url, oldLayout()).getText().contains("Старый абзац"));
+
+        // the 20th hit is re-probed: the learned element still has enough text, but under half of <article>
+        assertTrue(rules.needsReprobe("site.example"));
+        for (int miss = 1; miss <= 3; miss++) {
+            String text = fetcher.extract(url, redesigned(4)).getText();
+            assertTrue(text.contains("Новый абзац"), "miss " + miss);
+            assertFalse(text.contains("Анонс"), "miss " + miss);
+        }
+        assertEquals("article", rules.selectorFor("site.example"));
+    }
+
+    @Test
+    void learnedRuleKeepingHalfOfTheArticleStillHits() {
+        fetcher = fetcher(new RetryBudget(1, 10));
+        String url = "https://site.example/post";
+
+        fetcher.extract(url, oldLayout());
+        for (int i = 0; i < 19; i++) fetcher.extract(url, oldLayout());
+
+        String text = fetcher.extract(url, redesigned(8)).getText();
+        assertTrue(text.contains("Анонс"));
+        assertFalse(rules.needsReprobe("site.example"), "counted as a hit");
+        assertEquals("div[class*=\"post\"]", rules.selectorFor("site.example"));
+    }
+
+    @Test
+    void bodyFallbackIsNeverLearned() {
+        fetcher = fetcher(new RetryBudget(1, 10));
+        Document page = Jsoup.parse("<html><body>" + paragraphs("Абзац без контейнера", 5) + "</body></html>");
+
+        assertTrue(fetcher.extract("https://plain.example/a", page).getText().contains("Абзац без контейнера"));
+        assertNull(rules.selectorFor("plain.example"));
+
+        // a "body" rule left by an older version is dropped and replaced by a real selector
+        rules.learn("plain.example", "body");
+        fetcher.extract("https://plain.example/b", redesigned(4));
+        assertEquals("article", rules.selectorFor("plain.example"));
+    }
+
+    private static Document oldLayout() {
+        return Jsoup.parse("<html><body><div class=\"post-body\">" + paragraphs("Старый абзац", 5)
+                + "</div></body></html>");
+    }
+
+    // the old container is left with a teaser of the given size (4 paragraphs are just over
+    // MIN_LEARNED_TEXT_CHARS and under half of the article, 8 are over half), the article moved to <article>
+    private static Document redesigned(int teaserParagraphs) {
+        return Jsoup.parse("<html><body><article>" + paragraphs("Новый абзац", 14) + "</article>"
+                + "<div class=\"post-teaser\">" + paragraphs("Анонс", teaserParagraphs) + "</div></body></html>");
+    }
+
+    private static String paragraphs(String prefix, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            sb.append("<p>").append(prefix).append(' ').append(i)
+                    .append(": текст статьи о кэшировании, задержке и измерениях.</p>");
+        }
+        return sb.toString();
+    }
+
+    // p95 of 20 ms makes the fetcher hedge early; the single slow sample keeps the timeout (3 x p99) long
+    private void knownFastHost() {
+        for (int i = 0; i < 19; i++) latencies.record(HOST, 20);
+        latencies.record(HOST, 3000);
+    }
+
+    private ArticleFetcher fetcher(RetryBudget budget) {
+        return new ArticleFetcher(latencies, rules, new BoilerplateFilter(), budget);
+    }
+
+    private void slowResponse(HttpExchange x) {
+        try (x) {
+            x.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            x.sendResponseHeaders(200, 0);
+            OutputStream body = x.getResponseBody();
+            for (long waited = 0; waited < SLOW_MILLIS; waited += 100) {
+                Thread.sleep(100);
+                body.write(' ');
+                body.flush();
+            }
+            body.write(PAGE);
+            slowOutcome.complete("completed");
+        } catch (IOException | InterruptedException e) {
+            slowOutcome.complete("aborted: " + e);
+        }
+    }
+
+    private static void respond(HttpExchange x, String contentType, byte[] body) throws IOException {
+        try (x) {
+            x.getResponseHeaders().add("Content-Type", contentType);
+            x.sendResponseHeaders(200, body.length);
+            x.getResponseBody().write(body);
+        }
+    }
+}
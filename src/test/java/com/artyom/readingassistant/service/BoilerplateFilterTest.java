@@ -0,0 +1,82 @@
+package com.artyom.readingassistant.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoilerplateFilterTest {
+
+    private static final String HOST = "example.com";
+    private static final String FOOTER = "Подпишитесь на нашу рассылку, чтобы не пропустить новые статьи.";
+    private static final String BANNER = "Мы используем cookies для улучшения работы сайта.";
+
+    private final BoilerplateFilter filter = new BoilerplateFilter();
+
+    @Test
+    void repeatedParagraphIsDroppedOnceEnoughPagesAreKnown() {
+        for (int page = 1; page <= 4; page++) {
+            String text = page(page, FOOTER);
+            assertEquals(text, filter.filter(HOST, url(page), text), "page " + page + " is below the minimum");
+        }
+
+        assertEquals(body(5), filter.filter(HOST, url(5), page(5, FOOTER)));
+    }
+
+    @Test
+    void paragraphMustBeOnEnoughOfTheKnownPages() {
+        // of 5 pages (this one included), a paragraph needs to be on ceil(0.6 * 5) = 3 of them
+        filter.filter(HOST, url(1), page(1, BANNER));
+        filter.filter(HOST, url(2), page(2, FOOTER));
+        filter.filter(HOST, url(3), page(3, FOOTER));
+        filter.filter(HOST, url(4), page(4));
+
+        assertEquals(page(5, BANNER), filter.filter(HOST, url(5), page(5, FOOTER, BANNER)));
+    }
+
+    @Test
+    void refetchingSameUrlDoesNotCount() {
+        String text = page(1, FOOTER);
+        for (int i = 0; i < 10; i++) assertEquals(text, filter.filter(HOST, url(1), text));
+    }
+
+    @Test
+    void otherHostsAreNotAffected() {
+        for (int page = 1; page <= 5; page++) filter.filter(HOST, url(page), page(page, FOOTER));
+
+        String other = page(1, FOOTER);
+        assertEquals(other, filter.filter("other.org", "https://other.org/1", other));
+    }
+
+    @Test
+    void pageMadeOnlyOfBoilerplateIsKeptAsIs() {
+        for (int page = 1; page <= 5; page++) filter.filter(HOST, url(page), page(page, FOOTER, BANNER));
+
+        String chromeOnly = FOOTER + "\n\n" + BANNER;
+        assertEquals(chromeOnly, filter.filter(HOST, url(6), chromeOnly));
+    }
+
+    @Test
+    void paragraphThatLeavesTheWindowIsKeptAgain() {
+        for (int page = 1; page <= 5; page++) filter.filter(HOST, url(page), page(page, FOOTER));
+        assertEquals(body(6), filter.filter(HOST, url(6), page(6, FOOTER)));
+
+        // 32 pages without the footer push the ones with it out of the window
+        for (int page = 7; page < 7 + 32; page++) filter.filter(HOST, url(page), page(page));
+        assertEquals(page(100, FOOTER), filter.filter(HOST, url(100), page(100, FOOTER)));
+    }
+
+    private static String url(int page) {
+        return "https://" + HOST + "/articles/" + page;
+    }
+
+    private static String body(int page) {
+        return "Статья номер " + page + " рассказывает о том, как устроен кэш.\n\n"
+                + "Второй абзац статьи " + page + " описывает измерения задержки.";
+    }
+
+    private static String page(int page, String... chrome) {
+        StringBuilder sb = new StringBuilder(body(page));
+        for (String c : chrome) sb.append("\n\n").append(c);
+        return sb.toString();
+    }
+}
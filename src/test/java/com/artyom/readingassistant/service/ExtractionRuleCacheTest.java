@@ -0,0 +1,105 @@
+package com.artyom.readingassistant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtractionRuleCacheTest {
+
+    private static final String HOST = "example.com";
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private ExtractionRuleCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ExtractionRuleCache(dir.resolve("rules.json").toString(), mapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void existingRuleIsNotReplacedByLearning() {
+        assertNull(cache.selectorFor(HOST));
+        cache.learn(HOST, "article");
+        cache.learn(HOST, "main");
+        assertEquals("article", cache.selectorFor(HOST));
+    }
+
+    @Test
+    void reprobesEveryTwentiethHitAndAfterEachMiss() {
+        cache.learn(HOST, "article");
+        for (int i = 0; i < 19; i++) {
+            assertFalse(cache.needsReprobe(HOST), "hit " + (i + 1));
+            cache.recordHit(HOST);
+        }
+        assertTrue(cache.needsReprobe(HOST));
+        cache.recordHit(HOST);
+        assertFalse(cache.needsReprobe(HOST));
+
+        cache.recordMiss(HOST);
+        assertTrue(cache.needsReprobe(HOST));
+        cache.recordHit(HOST);
+        assertFalse(cache.needsReprobe(HOST));
+        assertFalse(cache.needsReprobe("unknown.org"));
+    }
+
+    @Test
+    void droppedAfterThreeMissesInARow() {
+        cache.learn(HOST, "article");
+        cache.recordHit(HOST);
+        cache.recordMiss(HOST);
+        cache.recordMiss(HOST);
+        assertEquals("article", cache.selectorFor(HOST));
+
+        cache.recordMiss(HOST);
+        assertNull(cache.selectorFor(HOST));
+
+        cache.learn(HOST, "main");
+        assertEquals("main", cache.selectorFor(HOST));
+    }
+
+    @Test
+    void droppedWhenHitRateFallsBelowHalf() {
+        cache.learn(HOST, "article");
+        // never three misses in a row; after 11 samples the hit rate is 4/11
+        for (int i = 0; i < 3; i++) {
+            cache.recordHit(HOST);
+            cache.recordMiss(HOST);
+            cache.recordMiss(HOST);
+        }
+        cache.recordHit(HOST);
+        assertEquals("article", cache.selectorFor(HOST));
+
+        cache.recordMiss(HOST);
+        assertNull(cache.selectorFor(HOST));
+    }
+
+    @Test
+    void rulesSurviveRestart() throws Exception {
+        cache.learn(HOST, "article");
+        cache.recordHit(HOST);
+        cache.learn("other.org", "main");
+        cache.forget("other.org");
+        cache.close();
+
+        assertTrue(Files.exists(dir.resolve("rules.json")));
+        assertFalse(Files.exists(dir.resolve("rules.json.tmp")));
+        cache = new ExtractionRuleCache(dir.resolve("rules.json").toString(), mapper);
+        assertEquals("article", cache.selectorFor(HOST));
+        assertNull(cache.selectorFor("other.org"));
+    }
+}
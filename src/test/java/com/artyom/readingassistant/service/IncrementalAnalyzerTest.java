@@ -0,0 +1,107 @@
+package com.artyom.readingassistant.service;
+
+import com.artyom.readingassistant.model.PipelineStage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalAnalyzerTest {
+
+    private static final String URL = "https://example.com/article";
+
+    private static final List<String> PARAGRAPHS = List.of(
+            "Кэширование ответов сокращает время отклика сервиса в несколько раз. "
+                    + "Главное здесь в том, чтобы правильно выбрать время жизни записей в кэше.",
+            "Перед внедрением нужно измерить текущую задержку на реальной нагрузке. "
+                    + "Без этих измерений невозможно понять, какой эффект дало изменение.",
+            "Вторая часть посвящена инвалидации данных при обновлении исходных записей. "
+                    + "Важно помнить, что устаревшие данные хуже, чем медленные ответы.",
+            "В заключение автор сравнивает несколько библиотек для локального кэша. "
+                    + "Следует выбирать ту, которая уже используется в проекте и хорошо знакома команде.");
+
+    private static final String EDITED = "Вторая часть теперь посвящена инвалидации по событиям из очереди сообщений. "
+            + "Важно помнить, что события могут приходить с задержкой и не по порядку.";
+
+    @Test
+    void editedTextGivesSameResultAsColdAnalysisAndRedoesOnlyChangedParagraph() {
+        CountingPreprocessor preprocessor = new CountingPreprocessor();
+        IncrementalAnalyzer analyzer = analyzer(preprocessor);
+
+        analyzer.analyze(URL, text(PARAGRAPHS), PipelineStage.DEFAULT, new StageTimings());
+        assertEquals(PARAGRAPHS.size(), preprocessor.calls.size());
+
+        List<String> edited = new ArrayList<>(PARAGRAPHS);
+        edited.set(2, EDITED);
+        preprocessor.calls.clear();
+        TextAnalysis warm = analyzer.analyze(URL, text(edited), PipelineStage.DEFAULT, new StageTimings());
+
+        assertEquals(List.of(EDITED), preprocessor.calls);
+
+        TextAnalysis cold = analyzer(new CountingPreprocessor())
+                .analyze(URL, text(edited), PipelineStage.DEFAULT, new StageTimings());
+        assertEquals(cold.summary, warm.summary);
+        assertEquals(cold.keyIdeas, warm.keyIdeas);
+        assertEquals(cold.actionItems, warm.actionItems);
+        assertFalse(warm.summary.isEmpty());
+        assertFalse(warm.keyIdeas.isEmpty());
+        assertFalse(warm.actionItems.isEmpty());
+    }
+
+    @Test
+    void stageRequestedLaterIsAddedToCachedParagraphs() {
+        CountingPreprocessor preprocessor = new CountingPreprocessor();
+        IncrementalAnalyzer analyzer = analyzer(preprocessor);
+
+        TextAnalysis summaryOnly = analyzer.analyze(URL, text(PARAGRAPHS),
+                PipelineStage.parse("summary"), new StageTimings());
+        assertEquals(List.of(), summaryOnly.keyIdeas);
+        assertEquals(List.of(), summaryOnly.actionItems);
+
+        preprocessor.calls.clear();
+        TextAnalysis full = analyzer.analyze(URL, text(PARAGRAPHS), PipelineStage.DEFAULT, new StageTimings());
+
+        assertEquals(List.of(), preprocessor.calls, "sentences are reused, only the new steps run");
+        TextAnalysis cold = analyzer(new CountingPreprocessor())
+                .analyze(URL, text(PARAGRAPHS), PipelineStage.DEFAULT, new StageTimings());
+        assertEquals(cold.keyIdeas, full.keyIdeas);
+        assertEquals(cold.actionItems, full.actionItems);
+    }
+
+    @Test
+    void leastRecentlyUsedUrlsAreEvicted() {
+        CountingPreprocessor preprocessor = new CountingPreprocessor();
+        IncrementalAnalyzer analyzer = analyzer(preprocessor);
+
+        for (int i = 0; i <= 256; i++) {
+            analyzer.analyze(URL + "/" + i, PARAGRAPHS.get(0), PipelineStage.DEFAULT, new StageTimings());
+        }
+        preprocessor.calls.clear();
+
+        analyzer.analyze(URL + "/256", PARAGRAPHS.get(0), PipelineStage.DEFAULT, new StageTimings());
+        assertEquals(0, preprocessor.calls.size(), "recent URL is cached");
+        analyzer.analyze(URL + "/0", PARAGRAPHS.get(0), PipelineStage.DEFAULT, new StageTimings());
+        assertEquals(1, preprocessor.calls.size(), "oldest URL was evicted");
+    }
+
+    private static IncrementalAnalyzer analyzer(TextPreprocessor preprocessor) {
+        return new IncrementalAnalyzer(preprocessor, new SummaryEngine(), new KeyIdeasExtractor(),
+                new ActionItemsExtractor());
+    }
+
+    private static String text(List<String> paragraphs) {
+        return String.join("\n\n", paragraphs);
+    }
+
+    private static final class CountingPreprocessor extends TextPreprocessor {
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public List<String> preprocess(String rawText) {
+            calls.add(rawText);
+            return super.preprocess(rawText);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.artyom.readingassistant.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginationLinksTest {
+
+    private static final String URL = "https://example.com/articles/long-read";
+
+    @Test
+    void fillsPagesElidedByWidget() {
+        Document doc = page(URL, "<a href='?page=2'>2</a> <a href='?page=3'>3</a> … <a href='?page=10'>10</a>");
+
+        SortedMap<Integer, String> pages = PaginationLinks.find(URL, doc, 20);
+
+        assertEquals(List.of(2, 3, 4, 5, 6, 7, 8, 9, 10), List.copyOf(pages.keySet()));
+        assertEquals(URL + "?page=3", pages.get(3));
+        assertEquals(URL + "?page=7", pages.get(7));
+        assertEquals(URL + "?page=10", pages.get(10));
+    }
+
+    @Test
+    void fillsGapsInPathPagesKeepingOtherQueryParameters() {
+        Document doc = page(URL, "<a href='/articles/long-read/page/2?lang=ru'>2</a>"
+                + "<a href='/articles/long-read/page/5?lang=ru'>5</a>");
+
+        SortedMap<Integer, String> pages = PaginationLinks.find(URL + "?lang=ru", doc, 20);
+
+        assertEquals(List.of(2, 3, 4, 5), List.copyOf(pages.keySet()));
+        assertEquals(URL + "/page/4?lang=ru", pages.get(4));
+    }
+
+    @Test
+    void stopsAtMaxPageEvenWhenLastLinkIsBeyond() {
+        Document doc = page(URL, "<a href='?page=2'>2</a> … <a href='?page=50'>50</a>");
+
+        SortedMap<Integer, String> pages = PaginationLinks.find(URL, doc, 5);
+
+        assertEquals(List.of(2, 3, 4, 5), List.copyOf(pages.keySet()));
+    }
+
+    @Test
+    void ignoresLinksWithOtherParametersOrPaths() {
+        Document doc = page(URL, "<a href='?page=2&amp;utm=x'>2</a> <a href='?page=3'>3</a>"
+                + "<a href='https://example.com/articles/other?page=9'>other</a>");
+
+        SortedMap<Integer, String> pages = PaginationLinks.find(URL, doc, 20);
+
+        assertEquals(List.of(2, 3), List.copyOf(pages.keySet()));
+        assertEquals(URL + "?page=2", pages.get(2)); // filled in from page 3, the utm link is another URL
+        assertEquals(URL + "?page=3", pages.get(3));
+    }
+
+    @Test
+    void relNextIsPageTwoWithoutNumberedLinks() {
+        Document doc = page(URL, "<a rel='next' href='/articles/long-read-part-2'>next</a>");
+
+        SortedMap<Integer, String> pages = PaginationLinks.find(URL, doc, 20);
+
+        assertEquals(1, pages.size());
+        assertEquals("https://example.com/articles/long-read-part-2", pages.get(2));
+    }
+
+    @Test
+    void laterPageOnlyLooksForward() {
+        String third = URL + "?page=3";
+        Document doc = page(third, "<a href='?page=1'>1</a> <a href='?page=2'>2</a> <a href='?page=6'>6</a>");
+
+        SortedMap<Integer, String> pages = PaginationLinks.find(third, doc, 20);
+
+        assertEquals(List.of(4, 5, 6), List.copyOf(pages.keySet()));
+    }
+
+    private static Document page(String url, String links) {
+        return Jsoup.parse("<html><body><article><p>text</p></article><nav>" + links + "</nav></body></html>", url);
+    }
+}
@@ -0,0 +1,31 @@
+package com.artyom.readingassistant.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    @Test
+    void extraRequestNeedsEnoughRegularOnes() {
+        RetryBudget budget = new RetryBudget(0.25, 10);
+        assertFalse(budget.tryWithdraw());
+
+        for (int i = 0; i < 3; i++) budget.deposit();
+        assertFalse(budget.tryWithdraw(), "0.75 tokens");
+
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw(), "spent");
+    }
+
+    @Test
+    void savedTokensAreCapped() {
+        RetryBudget budget = new RetryBudget(1, 2);
+        for (int i = 0; i < 100; i++) budget.deposit();
+
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw(), "a quiet period must not allow a burst of extra requests");
+    }
+}
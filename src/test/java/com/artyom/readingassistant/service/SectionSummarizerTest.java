@@ -0,0 +1,133 @@
+package com.artyom.readingassistant.service;
+
+import com.artyom.readingassistant.model.ArticleResult;
+import com.artyom.readingassistant.model.SectionHeading;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionSummarizerTest {
+
+    private static final String INTRO = "Этот текст вводит читателя в тему и объясняет, зачем нужна статья.";
+    private static final String REPEATED = "Подробности приведены в таблице ниже, смотрите её внимательно.";
+    private static final String SETUP = "Для начала установите зависимости и подготовьте тестовые данные.";
+    private static final String RESULTS = "Результаты показали, что кэширование ускоряет ответы в три раза.";
+
+    @TempDir
+    Path dir;
+
+    private SectionSummarizer summarizer;
+
+    @BeforeEach
+    void setUp() {
+        summarizer = new SectionSummarizer(new TextPreprocessor(), new SummaryEngine());
+    }
+
+    @AfterEach
+    void tearDown() {
+        summarizer.close();
+    }
+
+    @Test
+    void splitsWhereSectionsStart() {
+        String text = String.join("\n\n", INTRO, SETUP, RESULTS);
+        List<SectionSummarizer.Section> sections = summarizer.split(text, List.of(
+                new SectionHeading("Setup", SETUP, 0),
+                new SectionHeading("Results", RESULTS, 0)));
+
+        assertEquals(3, sections.size());
+        assertNull(sections.get(0).heading);
+        assertEquals(INTRO, sections.get(0).text);
+        assertEquals("Setup", sections.get(1).heading);
+        assertEquals(SETUP, sections.get(1).text);
+        assertEquals("Results", sections.get(2).heading);
+        assertEquals(RESULTS, sections.get(2).text);
+    }
+
+    @Test
+    void sectionWithFilteredFirstParagraphStaysInPreviousOne() {
+        // the first paragraph under "Setup" was dropped (e.g. as boilerplate) before splitting
+        String text = String.join("\n\n", INTRO, REPEATED, RESULTS);
+        List<SectionSummarizer.Section> sections = summarizer.split(text, List.of(
+                new SectionHeading("Setup", SETUP, 0),
+                new SectionHeading("Results", RESULTS, 0)));
+
+        assertEquals(2, sections.size());
+        assertNull(sections.get(0).heading);
+        assertEquals(INTRO + "\n\n" + REPEATED, sections.get(0).text);
+        assertEquals("Results", sections.get(1).heading);
+    }
+
+    @Test
+    void repeatedParagraphStartsSectionOnlyAtRecordedCopy() {
+        String text = String.join("\n\n", INTRO, REPEATED, SETUP, REPEATED, RESULTS);
+        List<SectionSummarizer.Section> sections = summarizer.split(text, List.of(
+                new SectionHeading("Details", REPEATED, 1)));
+
+        assertEquals(2, sections.size());
+        assertEquals(String.join("\n\n", INTRO, REPEATED, SETUP), sections.get(0).text);
+        assertEquals("Details", sections.get(1).heading);
+        assertEquals(REPEATED + "\n\n" + RESULTS, sections.get(1).text);
+    }
+
+    @Test
+    void fetcherRecordsWhichCopyOfRepeatedParagraphStartsSection() {
+        String html = "<html><body><article>"
+                + "<p>" + INTRO + "</p><p>" + REPEATED + "</p><p>" + SETUP + "</p>"
+                + "<h2>Details</h2><p>" + REPEATED + "</p><p>" + RESULTS + "</p>"
+                + "</article></body></html>";
+        ArticleFetcher fetcher = new ArticleFetcher(new HostLatencyTracker(),
+                new ExtractionRuleCache(dir.resolve("rules.json").toString(), new ObjectMapper()),
+                new BoilerplateFilter());
+        try {
+            ArticleResult article = fetcher.extract("https://example.com/a", Jsoup.parse(html));
+            List<SectionHeading> headings = article.getSectionHeadings();
+            assertEquals(1, headings.size());
+            assertEquals("Details", headings.get(0).getHeading());
+            assertEquals(REPEATED, headings.get(0).getFirstParagraph());
+            assertEquals(1, headings.get(0).getOccurrence());
+
+            List<SectionSummarizer.Section> sections = summarizer.split(article.getText(), headings);
+            assertEquals(2, sections.size());
+            assertTrue(sections.get(0).text.endsWith(SETUP));
+            assertEquals(REPEATED + "\n\n" + RESULTS, sections.get(1).text);
+        } finally {
+            fetcher.close();
+        }
+    }
+
+    @Test
+    void noHeadingsMeansNoSections() {
+        assertEquals(List.of(), summarizer.split(INTRO, List.of()));
+        assertEquals(List.of(), summarizer.split("", List.of(new SectionHeading("Setup", SETUP, 0))));
+    }
+
+    @Test
+    void summarizeNeedsAtLeastTwoSections() {
+        assertNull(summarizer.summarize(List.of(new SectionSummarizer.Section(null, INTRO))));
+    }
+
+    @Test
+    void summarizeKeepsSectionOrder() {
+        List<SectionSummarizer.Section> sections = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            sections.add(new SectionSummarizer.Section("Part " + i, INTRO + " " + SETUP + " " + RESULTS));
+        }
+
+        SectionSummarizer.Result result = summarizer.summarize(sections);
+
+        assertNotNull(result);
+        assertEquals(6, result.sections.size());
+        for (int i = 0; i < 6; i++) assertEquals("Part " + i, result.sections.get(i).getHeading());
+        assertNotNull(result.summary);
+    }
+}
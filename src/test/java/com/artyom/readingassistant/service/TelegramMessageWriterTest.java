@@ -0,0 +1,83 @@
+package com.artyom.readingassistant.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelegramMessageWriterTest {
+
+    private final List<String> messages = new ArrayList<>();
+
+    @Test
+    void cutsAtLastParagraphWhenItKeepsHalfOfMessage() {
+        TelegramMessageWriter writer = new TelegramMessageWriter(messages::add, 20);
+        writer.append("aaaaaaaaaaaa\n\nbbbbbbbbbbbb");
+        writer.flush();
+
+        assertEquals(List.of("aaaaaaaaaaaa", "bbbbbbbbbbbb"), messages);
+    }
+
+    @Test
+    void fallsBackToLineBreakWhenParagraphIsTooEarly() {
+        // the blank line at 3 would leave a message of 3 chars out of 20
+        TelegramMessageWriter writer = new TelegramMessageWriter(messages::add, 20);
+        writer.append("aaa\n\nbbbbbbbbbbb\ncccccccc");
+        writer.flush();
+
+        assertEquals(List.of("aaa\n\nbbbbbbbbbbb", "cccccccc"), messages);
+    }
+
+    @Test
+    void cutsHardAtLimitWithoutLineBreaks() {
+        TelegramMessageWriter writer = new TelegramMessageWriter(messages::add, 10);
+        writer.append("0123456789abcdefghijKLM");
+        writer.flush();
+
+        assertEquals(List.of("0123456789", "abcdefghij", "KLM"), messages);
+    }
+
+    @Test
+    void hardCutDoesNotSplitSurrogatePair() {
+        String emoji = "😀"; // one code point, two chars
+        TelegramMessageWriter writer = new TelegramMessageWriter(messages::add, 10);
+        writer.append("012345678" + emoji + "xyz");
+        writer.flush();
+
+        assertEquals(List.of("012345678", emoji + "xyz"), messages);
+        for (String m : messages) {
+            assertFalse(Character.isHighSurrogate(m.charAt(m.length() - 1)));
+            assertFalse(Character.isLowSurrogate(m.charAt(0)));
+        }
+    }
+
+    @Test
+    void charByCharAppendGivesSameMessages() {
+        String text = "aaaaaaaaaaaa\n\nbbbbbbbbbbbb\ncccccccccccccccccccccccc";
+        TelegramMessageWriter whole = new TelegramMessageWriter(messages::add, 20);
+        whole.append(text);
+        whole.flush();
+
+        List<String> byChar = new ArrayList<>();
+        TelegramMessageWriter writer = new TelegramMessageWriter(byChar::add, 20);
+        for (int i = 0; i < text.length(); i++) writer.append(text.charAt(i));
+        writer.flush();
+
+        assertEquals(messages, byChar);
+        for (String m : messages) assertTrue(m.length() <= 20);
+    }
+
+    @Test
+    void flushSendsRestAndSkipsBlankMessages() {
+        TelegramMessageWriter writer = new TelegramMessageWriter(messages::add, 20);
+        writer.flush();
+        assertEquals(List.of(), messages);
+
+        writer.append("short\n\n");
+        writer.flush();
+        writer.flush();
+        assertEquals(List.of("short"), messages);
+    }
+}